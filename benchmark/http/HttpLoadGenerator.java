@@ -0,0 +1,334 @@
+package http;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParser;
+import manager.ConcurrentTaskManager;
+import manager.Managers;
+import manager.Status;
+import task.Epic;
+import task.Subtask;
+import task.Task;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Генератор нагрузки для HttpTaskServer с открытой моделью: запросы отправляются
+ * по расписанию с заданной частотой, не дожидаясь ответов. Задержка считается от
+ * запланированного момента отправки (поправка на coordinated omission) и, отдельно,
+ * от фактического.
+ *
+ * <p>Параметры передаются как key=value:
+ * <pre>
+ * url=http://localhost:8080   адрес сервера (если не задан — поднимается встроенный)
+ * rate=500                    запросов в секунду
+ * duration=30                 длительность в секундах
+ * threads=VIRTUAL             ThreadModel встроенного сервера
+ * mix=TASKS:30,TASK:20,...    веса операций (см. Operation)
+ * </pre>
+ *
+ * <p>DELETE-операции удаляют сущности, созданные соответствующими POST. Если удалять пока
+ * нечего, слот расписания пропускается: такие запросы не отправляются, не попадают
+ * в задержки и печатаются отдельно как skipped.
+ */
+public class HttpLoadGenerator {
+    private static final Gson gson = Managers.getGson();
+
+    enum Operation {
+        TASKS, TASK, SUBTASKS, EPICS, HISTORY, PRIORITIZED,
+        POST_TASK("/tasks/task/"), DELETE_TASK("/tasks/task/"),
+        POST_EPIC("/tasks/epic/"), DELETE_EPIC("/tasks/epic/"),
+        POST_SUBTASK("/tasks/subtask/"), DELETE_SUBTASK("/tasks/subtask/");
+
+        /* Ресурс, который операция создаёт или удаляет; null для чтений */
+        final String resource;
+
+        Operation() {
+            this(null);
+        }
+
+        Operation(String resource) {
+            this.resource = resource;
+        }
+    }
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final String baseUrl;
+    private final int rate;
+    private final int durationSeconds;
+    private final Operation[] schedule;
+    private final Map<String, ConcurrentLinkedQueue<Integer>> createdIds = Map.of(
+            "/tasks/task/", new ConcurrentLinkedQueue<>(),
+            "/tasks/epic/", new ConcurrentLinkedQueue<>(),
+            "/tasks/subtask/", new ConcurrentLinkedQueue<>());
+    private final AtomicInteger errors = new AtomicInteger();
+    private int seededTaskId;
+    private int seededEpicId;
+
+    public HttpLoadGenerator(String baseUrl, int rate, int durationSeconds, Map<Operation, Integer> mix) {
+        this.baseUrl = baseUrl;
+        this.rate = rate;
+        this.durationSeconds = durationSeconds;
+        this.schedule = buildSchedule(mix);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator > 0) {
+                options.put(arg.substring(0, separator), arg.substring(separator + 1));
+            }
+        }
+
+        int rate = Integer.parseInt(options.getOrDefault("rate", "500"));
+        int duration = Integer.parseInt(options.getOrDefault("duration", "30"));
+        Map<Operation, Integer> mix = parseMix(options.getOrDefault("mix",
+                "TASKS:30,TASK:20,SUBTASKS:10,EPICS:5,HISTORY:10,PRIORITIZED:10,POST_TASK:10,DELETE_TASK:5,"
+                        + "POST_EPIC:2,DELETE_EPIC:1,POST_SUBTASK:5,DELETE_SUBTASK:3"));
+
+        HttpTaskServer server = null;
+        String url = options.get("url");
+        if (url == null) {
+            ThreadModel threadModel = ThreadModel.valueOf(options.getOrDefault("threads", "VIRTUAL"));
+            server = new HttpTaskServer(new ConcurrentTaskManager(), HttpTaskServer.DEFAULT_PORT, 1024,
+                    threadModel, Runtime.getRuntime().availableProcessors());
+            server.start();
+            url = "http://localhost:" + HttpTaskServer.DEFAULT_PORT;
+        }
+
+        try {
+            HttpLoadGenerator generator = new HttpLoadGenerator(url, rate, duration, mix);
+            generator.seed();
+            generator.run().print(System.out);
+        } finally {
+            if (server != null) {
+                server.stop();
+            }
+        }
+    }
+
+    /**
+     * Создаёт задачу, эпик и подзадачу, чтобы GET-операциям было что возвращать.
+     */
+    void seed() throws IOException, InterruptedException {
+        HttpResponse<String> taskResponse = client.send(
+                post("/tasks/task/", gson.toJson(new Task("Seed task", "Load test", 0, Status.NEW))),
+                HttpResponse.BodyHandlers.ofString());
+        seededTaskId = gson.fromJson(taskResponse.body(), Task.class).getTaskId();
+
+        HttpResponse<String> epicResponse = client.send(
+                post("/tasks/epic/", gson.toJson(new Epic("Seed epic", "Load test", 0, Status.NEW))),
+                HttpResponse.BodyHandlers.ofString());
+        seededEpicId = gson.fromJson(epicResponse.body(), Epic.class).getTaskId();
+
+        client.send(post("/tasks/subtask/",
+                        gson.toJson(new Subtask("Seed subtask", "Load test", 0, Status.NEW, seededEpicId))),
+                HttpResponse.BodyHandlers.ofString());
+        client.send(get("/tasks/task/" + seededTaskId), HttpResponse.BodyHandlers.discarding());
+    }
+
+    LatencyReport run() {
+        int total = rate * durationSeconds;
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        AtomicLongArray correctedLatency = new AtomicLongArray(total);
+        AtomicLongArray serviceLatency = new AtomicLongArray(total);
+        CompletableFuture<?>[] inFlight = new CompletableFuture<?>[total];
+        boolean[] skipped = new boolean[total];
+        int skippedCount = 0;
+
+        long start = System.nanoTime();
+        for (int i = 0; i < total; i++) {
+            long intended = start + i * intervalNanos;
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            int index = i;
+            Operation operation = schedule[i % schedule.length];
+            HttpRequest request = request(operation);
+            if (request == null) {
+                skipped[i] = true;
+                skippedCount++;
+                inFlight[i] = CompletableFuture.completedFuture(null);
+                continue;
+            }
+            long sent = System.nanoTime();
+            inFlight[i] = client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                    .handle((response, error) -> {
+                        long now = System.nanoTime();
+                        correctedLatency.set(index, now - intended);
+                        serviceLatency.set(index, now - sent);
+                        if (error != null || response.statusCode() >= 500) {
+                            errors.incrementAndGet();
+                        } else if (operation.resource != null && response.statusCode() == 201) {
+                            createdIds.get(operation.resource).add(JsonParser.parseString(response.body())
+                                    .getAsJsonObject().get("taskId").getAsInt());
+                        }
+                        return null;
+                    });
+        }
+        CompletableFuture.allOf(inFlight).join();
+        long elapsed = System.nanoTime() - start;
+
+        return new LatencyReport(total - skippedCount, skippedCount, errors.get(), elapsed,
+                toSortedArray(correctedLatency, skipped), toSortedArray(serviceLatency, skipped));
+    }
+
+    /**
+     * Запрос для операции или null, если DELETE нечего удалять.
+     */
+    private HttpRequest request(Operation operation) {
+        switch (operation) {
+            case TASKS:
+                return get("/tasks/task/");
+            case TASK:
+                return get("/tasks/task/" + seededTaskId);
+            case SUBTASKS:
+                return get("/tasks/subtask/");
+            case EPICS:
+                return get("/tasks/epic/");
+            case HISTORY:
+                return get("/tasks/history/");
+            case PRIORITIZED:
+                return get("/tasks/prioritized");
+            case POST_TASK:
+                return post(operation.resource, gson.toJson(new Task("Load task", "Load test", 0, Status.NEW)));
+            case POST_EPIC:
+                return post(operation.resource, gson.toJson(new Epic("Load epic", "Load test", 0, Status.NEW)));
+            case POST_SUBTASK:
+                return post(operation.resource,
+                        gson.toJson(new Subtask("Load subtask", "Load test", 0, Status.NEW, seededEpicId)));
+            case DELETE_TASK:
+            case DELETE_EPIC:
+            case DELETE_SUBTASK:
+                Integer id = createdIds.get(operation.resource).poll();
+                return id == null
+                        ? null
+                        : HttpRequest.newBuilder(URI.create(baseUrl + operation.resource + id)).DELETE().build();
+            default:
+                throw new IllegalArgumentException("Неизвестная операция: " + operation);
+        }
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build();
+    }
+
+    private HttpRequest post(String path, String body) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    static Map<Operation, Integer> parseMix(String value) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (String entry : value.split(",")) {
+            String[] parts = entry.split(":");
+            mix.put(Operation.valueOf(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+        }
+        return mix;
+    }
+
+    /**
+     * Перемешанная последовательность операций, в которой каждая встречается пропорционально весу.
+     */
+    private static Operation[] buildSchedule(Map<Operation, Integer> mix) {
+        int size = mix.values().stream().mapToInt(Integer::intValue).sum();
+        if (size <= 0) {
+            throw new IllegalArgumentException("Сумма весов операций должна быть положительной");
+        }
+        Operation[] schedule = new Operation[size];
+        int position = 0;
+        for (Map.Entry<Operation, Integer> entry : mix.entrySet()) {
+            for (int i = 0; i < entry.getValue(); i++) {
+                schedule[position++] = entry.getKey();
+            }
+        }
+
+        Random random = new Random(42);
+        for (int i = size - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            Operation swap = schedule[i];
+            schedule[i] = schedule[j];
+            schedule[j] = swap;
+        }
+        return schedule;
+    }
+
+    private static long[] toSortedArray(AtomicLongArray values, boolean[] skipped) {
+        long[] result = new long[values.length()];
+        int size = 0;
+        for (int i = 0; i < values.length(); i++) {
+            if (!skipped[i]) {
+                result[size++] = values.get(i);
+            }
+        }
+        result = Arrays.copyOf(result, size);
+        Arrays.sort(result);
+        return result;
+    }
+
+    static class LatencyReport {
+        private final int requests;
+        private final int skipped;
+        private final int errors;
+        private final long elapsedNanos;
+        private final long[] corrected;
+        private final long[] service;
+
+        LatencyReport(int requests, int skipped, int errors, long elapsedNanos, long[] corrected, long[] service) {
+            this.requests = requests;
+            this.skipped = skipped;
+            this.errors = errors;
+            this.elapsedNanos = elapsedNanos;
+            this.corrected = corrected;
+            this.service = service;
+        }
+
+        double throughput() {
+            return requests / (elapsedNanos / 1e9);
+        }
+
+        static double percentileMillis(long[] sorted, double percentile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1e6;
+        }
+
+        void print(java.io.PrintStream out) {
+            out.printf("requests=%d skipped=%d errors=%d throughput=%.1f req/s%n",
+                    requests, skipped, errors, throughput());
+            printLine(out, "corrected", corrected);
+            printLine(out, "service  ", service);
+        }
+
+        private static void printLine(java.io.PrintStream out, String name, long[] sorted) {
+            out.printf("%s p50=%.2fms p99=%.2fms p999=%.2fms max=%.2fms%n", name,
+                    percentileMillis(sorted, 50), percentileMillis(sorted, 99),
+                    percentileMillis(sorted, 99.9), percentileMillis(sorted, 100));
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package manager;
+
+import org.openjdk.jmh.annotations.*;
+import task.Epic;
+import task.Subtask;
+import task.Task;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FileBackedTaskManagerBenchmark {
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Param({"1000", "10000", "100000"})
+    private int size;
+
+    private File file;
+    private FileBackedTaskManager manager;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        file = File.createTempFile("benchmark", ".csv");
+        manager = new FileBackedTaskManager(file);
+
+        InMemoryTaskManager source = new InMemoryTaskManager();
+        int epics = Math.max(1, size / 10);
+        for (int i = 0; i < epics; i++) {
+            source.addEpic(new Epic("Epic " + i, "Description"));
+        }
+        for (int i = 0; i < size; i++) {
+            if (i % 2 == 0) {
+                source.addTask(new Task("Task " + i, "Description", 0, Status.NEW, BASE.plusMinutes(i * 10L), 5));
+            } else {
+                int epicId = 1 + i % epics;
+                source.addSubtask(new Subtask("Subtask " + i, "Description", 0, Status.IN_PROGRESS, epicId));
+            }
+        }
+        source.getEpics().forEach(manager::loadEpic);
+        source.getTasks().forEach(manager::loadTask);
+        source.getSubtasks().forEach(manager::loadSubtask);
+        manager.save();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Benchmark
+    public void save() {
+        manager.save();
+    }
+
+    @Benchmark
+    public FileBackedTaskManager loadFromFile() {
+        return FileBackedTaskManager.loadFromFile(file);
+    }
+}
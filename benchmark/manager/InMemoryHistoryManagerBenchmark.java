@@ -0,0 +1,52 @@
+package manager;
+
+import org.openjdk.jmh.annotations.*;
+import task.Task;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InMemoryHistoryManagerBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int size;
+
+    private HistoryManager historyManager;
+    private Task[] tasks;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        historyManager = new InMemoryHistoryManager();
+        tasks = new Task[size];
+        for (int i = 0; i < size; i++) {
+            tasks[i] = new Task("Task " + i, "Description", i + 1, Status.NEW);
+            historyManager.add(tasks[i]);
+        }
+    }
+
+    @Benchmark
+    public void addExisting() {
+        historyManager.add(tasks[next]);
+        next = (next + 1) % size;
+    }
+
+    @Benchmark
+    public void removeAndAdd() {
+        Task task = tasks[next];
+        historyManager.remove(task.getTaskId());
+        historyManager.add(task);
+        next = (next + 1) % size;
+    }
+
+    @Benchmark
+    public List<Task> getHistory() {
+        return historyManager.getHistory();
+    }
+}
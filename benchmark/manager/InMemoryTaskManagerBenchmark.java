@@ -0,0 +1,77 @@
+package manager;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import task.Epic;
+import task.Subtask;
+import task.Task;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InMemoryTaskManagerBenchmark {
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Param({"1000", "10000", "100000"})
+    private int size;
+
+    private InMemoryTaskManager manager;
+    private Epic largeEpic;
+    private Task timedTask;
+    private Task updatedTask;
+    private LocalDateTime freeSlot;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        manager = new InMemoryTaskManager();
+        for (int i = 0; i < size; i++) {
+            manager.addTask(new Task("Task " + i, "Description", 0, Status.NEW, BASE.plusMinutes(i * 10L), 5));
+        }
+
+        largeEpic = manager.addEpic(new Epic("Epic", "Description"));
+        for (int i = 0; i < size; i++) {
+            Status status = i % 2 == 0 ? Status.NEW : Status.DONE;
+            manager.addSubtask(new Subtask("Subtask " + i, "Description", 0, status, largeEpic.getTaskId()));
+        }
+
+        timedTask = manager.getTasks(size / 2, 1).getFirst();
+        updatedTask = new Task("Updated", "Description", timedTask.getTaskId(), Status.IN_PROGRESS,
+                timedTask.getStartTime(), timedTask.getDuration());
+        freeSlot = BASE.plusMinutes(size * 10L + 10);
+    }
+
+    @Benchmark
+    public void addAndDeleteTaskWithoutTime() {
+        Task task = manager.addTask(new Task("New", "Description"));
+        manager.deleteTask(task.getTaskId());
+    }
+
+    @Benchmark
+    public void addAndDeleteTaskWithTime() {
+        Task task = manager.addTask(new Task("New", "Description", 0, Status.NEW, freeSlot, 5));
+        manager.deleteTask(task.getTaskId());
+    }
+
+    @Benchmark
+    public Task updateTimedTask() {
+        return manager.updateTask(updatedTask);
+    }
+
+    @Benchmark
+    public List<Task> getPrioritizedTasks() {
+        return manager.getPrioritizedTasks();
+    }
+
+    @Benchmark
+    public void updateEpicStatusOnLargeEpic(Blackhole blackhole) {
+        manager.updateEpicStatus(largeEpic);
+        blackhole.consume(largeEpic.getStatus());
+    }
+}
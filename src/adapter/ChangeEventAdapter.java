@@ -0,0 +1,48 @@
+package adapter;
+
+import com.google.gson.*;
+import manager.ChangeEvent;
+import task.ImmutableTask;
+import task.Task;
+import task.TypeTask;
+
+import java.lang.reflect.Type;
+
+public class ChangeEventAdapter implements JsonSerializer<ChangeEvent>, JsonDeserializer<ChangeEvent> {
+
+    @Override
+    public JsonElement serialize(ChangeEvent event, Type typeOfSrc, JsonSerializationContext context) {
+        JsonObject jsonObject = new JsonObject();
+        jsonObject.addProperty("version", event.getVersion());
+        jsonObject.addProperty("type", event.getType().name());
+        jsonObject.addProperty("entity", event.getEntity().name());
+        jsonObject.addProperty("id", event.getId());
+
+        if (event.getEntity() == TypeTask.SUBTASK) {
+            jsonObject.addProperty("epicId", event.getEpicId());
+        }
+        if (event.getSnapshot() != null) {
+            jsonObject.add("task", context.serialize(event.getSnapshot(), Task.class));
+        }
+
+        return jsonObject;
+    }
+
+    @Override
+    public ChangeEvent deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context) throws JsonParseException {
+        JsonObject jsonObject = json.getAsJsonObject();
+
+        long version = jsonObject.get("version").getAsLong();
+        ChangeEvent.Type type = ChangeEvent.Type.valueOf(jsonObject.get("type").getAsString());
+        TypeTask entity = TypeTask.valueOf(jsonObject.get("entity").getAsString());
+        int id = jsonObject.get("id").getAsInt();
+        int epicId = jsonObject.has("epicId") ? jsonObject.get("epicId").getAsInt() : 0;
+
+        ImmutableTask snapshot = null;
+        if (jsonObject.has("task")) {
+            snapshot = new ImmutableTask(context.deserialize(jsonObject.get("task"), Task.class));
+        }
+
+        return new ChangeEvent(version, type, entity, id, epicId, snapshot);
+    }
+}
@@ -0,0 +1,28 @@
+package adapter;
+
+import com.google.gson.*;
+import manager.TimeSlot;
+
+import java.lang.reflect.Type;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+public class TimeSlotAdapter implements JsonSerializer<TimeSlot>, JsonDeserializer<TimeSlot> {
+    private static final DateTimeFormatter formatter = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+
+    @Override
+    public JsonElement serialize(TimeSlot slot, Type typeOfSrc, JsonSerializationContext context) {
+        JsonObject jsonObject = new JsonObject();
+        jsonObject.addProperty("start", slot.getStart().format(formatter));
+        jsonObject.addProperty("end", slot.getEnd().format(formatter));
+        return jsonObject;
+    }
+
+    @Override
+    public TimeSlot deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context) throws JsonParseException {
+        JsonObject jsonObject = json.getAsJsonObject();
+        LocalDateTime start = LocalDateTime.parse(jsonObject.get("start").getAsString(), formatter);
+        LocalDateTime end = LocalDateTime.parse(jsonObject.get("end").getAsString(), formatter);
+        return new TimeSlot(start, end);
+    }
+}
@@ -0,0 +1,10 @@
+package exception;
+
+/**
+ * Подзадача ссылается на эпик, которого нет в менеджере.
+ */
+public class EpicNotFoundException extends IllegalArgumentException {
+    public EpicNotFoundException(int epicId) {
+        super("Эпик с ID " + epicId + " не существует");
+    }
+}
@@ -0,0 +1,10 @@
+package exception;
+
+/**
+ * Задача пересекается по времени с существующими или для неё нет свободного окна.
+ */
+public class TimeConflictException extends IllegalArgumentException {
+    public TimeConflictException(String message) {
+        super(message);
+    }
+}
@@ -8,14 +8,37 @@ import manager.TaskManager;
 
 import java.io.IOException;
 import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
 
 public class HttpTaskServer {
+    public static final int DEFAULT_PORT = 8080;
+    public static final int DEFAULT_BACKLOG = 0;
+
     private final HttpServer httpServer;
-    private static final int PORT = 8080;
+    private final TaskManager taskManager;
+    private final ExecutorService executor;
+    private final ChangeStreamHandler changeStreamHandler;
+    private final int port;
 
     public HttpTaskServer() throws IOException, InterruptedException {
-        TaskManager taskManager = Managers.getDefault();
-        this.httpServer = HttpServer.create(new InetSocketAddress(PORT), 0);
+        this(Managers.getDefault());
+    }
+
+    public HttpTaskServer(TaskManager taskManager) throws IOException {
+        this(taskManager, DEFAULT_PORT, DEFAULT_BACKLOG, ThreadModel.SINGLE, 1);
+    }
+
+    /**
+     * Для ThreadModel.POOL и ThreadModel.VIRTUAL обработчики вызываются параллельно,
+     * поэтому taskManager должен быть потокобезопасным (ConcurrentTaskManager или WriteBehindTaskManager).
+     */
+    public HttpTaskServer(TaskManager taskManager, int port, int backlog,
+                          ThreadModel threadModel, int poolSize) throws IOException {
+        this.taskManager = taskManager;
+        this.port = port;
+        this.httpServer = HttpServer.create(new InetSocketAddress(port), backlog);
+        this.executor = threadModel.createExecutor(poolSize);
+        httpServer.setExecutor(executor);
 
         httpServer.createContext("/tasks/task/", new TaskHandler(taskManager));
         httpServer.createContext("/tasks/epic/", new EpicHandler(taskManager));
@@ -24,25 +47,48 @@ public class HttpTaskServer {
         httpServer.createContext("/tasks/history/", new HistoryHandler(taskManager));
         httpServer.createContext("/tasks/", new TasksHandler(taskManager));
         httpServer.createContext("/tasks/prioritized", new PrioritizedHandler(taskManager));
+        httpServer.createContext("/tasks/changes", new ChangesHandler(taskManager));
+
+        this.changeStreamHandler = new ChangeStreamHandler(taskManager);
+        httpServer.createContext("/tasks/events", changeStreamHandler);
     }
 
     public void start() {
         httpServer.start();
-        System.out.println("HTTP Task Server started on port " + PORT);
+        System.out.println("HTTP Task Server started on port " + port);
     }
 
     public void stop() {
+        changeStreamHandler.close();
         httpServer.stop(1);
+        if (executor != null) {
+            executor.shutdown();
+        }
+        if (taskManager instanceof AutoCloseable) {
+            try {
+                ((AutoCloseable) taskManager).close();
+            } catch (Exception e) {
+                System.err.println("Failed to close task manager: " + e.getMessage());
+            }
+        }
         System.out.println("HTTP Task Server stopped");
     }
 
     public static void main(String[] args) {
         try {
-            HttpTaskServer server = new HttpTaskServer();
+            int port = Integer.getInteger("kanban.port", DEFAULT_PORT);
+            int backlog = Integer.getInteger("kanban.backlog", DEFAULT_BACKLOG);
+            ThreadModel threadModel = ThreadModel.valueOf(
+                    System.getProperty("kanban.threads", ThreadModel.SINGLE.name()).toUpperCase());
+            int poolSize = Integer.getInteger("kanban.poolSize", Runtime.getRuntime().availableProcessors());
+
+            // Менеджер потокобезопасен и хранит данные в файле при любой модели потоков
+            TaskManager taskManager = Managers.getWriteBehind();
+            HttpTaskServer server = new HttpTaskServer(taskManager, port, backlog, threadModel, poolSize);
             server.start();
 
             Runtime.getRuntime().addShutdownHook(new Thread(server::stop));
-        } catch (IOException | InterruptedException e) {
+        } catch (IOException e) {
             System.err.println("Failed to start server: " + e.getMessage());
         }
     }
@@ -0,0 +1,21 @@
+package http;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public enum ThreadModel {
+    SINGLE,
+    POOL,
+    VIRTUAL;
+
+    ExecutorService createExecutor(int poolSize) {
+        switch (this) {
+            case POOL:
+                return Executors.newFixedThreadPool(poolSize);
+            case VIRTUAL:
+                return Executors.newVirtualThreadPerTaskExecutor();
+            default:
+                return null;
+        }
+    }
+}
@@ -2,19 +2,38 @@ package http.handlers;
 
 import com.google.gson.Gson;
 import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonWriter;
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
+import exception.EpicNotFoundException;
+import exception.TimeConflictException;
 import manager.Managers;
+import manager.Status;
 import manager.TaskManager;
+import task.TypeTask;
 
 
+import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.function.Function;
-import java.util.regex.Pattern;
+import java.util.function.IntToLongFunction;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
 
 public abstract class BaseHttpHandler implements HttpHandler {
+    private static final boolean PRETTY_BY_DEFAULT = Boolean.getBoolean("kanban.prettyJson");
+
     protected final TaskManager taskManager;
     protected final Gson gson;
 
@@ -23,6 +42,18 @@ public abstract class BaseHttpHandler implements HttpHandler {
         this.gson = Managers.getGson();
     }
 
+    /**
+     * Компактный JSON по умолчанию; форматированный — если сервер запущен с -Dkanban.prettyJson=true
+     * или клиент прислал Accept с параметром pretty (например, "application/json;pretty").
+     */
+    protected Gson gsonFor(HttpExchange exchange) {
+        if (PRETTY_BY_DEFAULT) {
+            return Managers.getPrettyGson();
+        }
+        String accept = exchange.getRequestHeaders().getFirst("Accept");
+        return accept != null && accept.contains("pretty") ? Managers.getPrettyGson() : gson;
+    }
+
     protected void sendText(HttpExchange exchange, String text, int statusCode) throws IOException {
         byte[] response = text.getBytes(StandardCharsets.UTF_8);
         exchange.getResponseHeaders().add("Content-Type", "application/json;charset=utf-8");
@@ -31,6 +62,31 @@ public abstract class BaseHttpHandler implements HttpHandler {
         exchange.close();
     }
 
+    /**
+     * Отправляет список как JSON-массив, сериализуя элементы прямо в тело ответа
+     * (chunked transfer encoding) без сборки всей строки в памяти.
+     */
+    protected void sendJsonList(HttpExchange exchange, Collection<?> items) throws IOException {
+        exchange.getResponseHeaders().add("Content-Type", "application/json;charset=utf-8");
+        exchange.sendResponseHeaders(200, 0);
+
+        Gson responseGson = gsonFor(exchange);
+        try (JsonWriter writer = responseGson.newJsonWriter(new BufferedWriter(
+                new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8)))) {
+            writer.beginArray();
+            for (Object item : items) {
+                if (item == null) {
+                    writer.nullValue();
+                } else {
+                    responseGson.toJson(item, item.getClass(), writer);
+                }
+            }
+            writer.endArray();
+        } finally {
+            exchange.close();
+        }
+    }
+
     protected void sendSuccess(HttpExchange exchange, String response) throws IOException {
         sendText(exchange, response, 200);
     }
@@ -47,6 +103,10 @@ public abstract class BaseHttpHandler implements HttpHandler {
         sendText(exchange, "Task overlaps with existing tasks", 406);
     }
 
+    protected void sendGone(HttpExchange exchange) throws IOException {
+        sendText(exchange, "Gone", 410);
+    }
+
     protected void sendInternalServerError(HttpExchange exchange) throws IOException {
         sendText(exchange, "Internal Server Error", 500);
     }
@@ -55,47 +115,195 @@ public abstract class BaseHttpHandler implements HttpHandler {
         sendText(exchange, "Bad Request", 400);
     }
 
+    /**
+     * Слабый ETag по версии менеджера; эпоха ленты изменений отличает версии разных запусков.
+     * Слабый — потому что компактный и форматированный JSON считаются одним представлением.
+     */
+    protected String etag(long version) {
+        return "W/\"" + Long.toHexString(taskManager.getChangeFeed().getEpoch()) + "-" + version + "\"";
+    }
+
+    /**
+     * Версия расписания: приоритетный список состоит из задач и подзадач.
+     */
+    protected long scheduleVersion() {
+        return Math.max(taskManager.getCollectionVersion(TypeTask.TASK),
+                taskManager.getCollectionVersion(TypeTask.SUBTASK));
+    }
+
+    /**
+     * Добавляет ETag в ответ. Если он совпал с If-None-Match, сразу отвечает 304 без тела
+     * и возвращает true — данные не сериализуются. Вызывается только после проверки запроса,
+     * перед ответом 200: ответы с ошибкой не должны нести ETag и не должны заменяться на 304.
+     */
+    protected boolean notModified(HttpExchange exchange, String etag) throws IOException {
+        exchange.getResponseHeaders().set("ETag", etag);
+        String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+        if (ifNoneMatch == null || !matchesEtag(ifNoneMatch, etag)) {
+            return false;
+        }
+        exchange.sendResponseHeaders(304, -1);
+        exchange.close();
+        return true;
+    }
+
+    private static boolean matchesEtag(String ifNoneMatch, String etag) {
+        String opaque = stripWeak(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.equals("*") || stripWeak(value).equals(opaque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String stripWeak(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+
     protected String readRequestBody(HttpExchange exchange) throws IOException {
         try (InputStream inputStream = exchange.getRequestBody()) {
             return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
         }
     }
 
-    protected int parsePathId(String path) {
-        try {
-            return Integer.parseInt(path);
-        } catch (NumberFormatException e) {
-            return -1;
+    protected Map<String, String> parseQuery(HttpExchange exchange) {
+        Map<String, String> params = new HashMap<>();
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null || query.isEmpty()) {
+            return params;
+        }
+        for (String pair : query.split("&")) {
+            int separator = pair.indexOf('=');
+            if (separator > 0) {
+                params.put(URLDecoder.decode(pair.substring(0, separator), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8));
+            }
         }
+        return params;
     }
 
-    protected <T> void handleGetRequest(HttpExchange exchange, String path, String basePath,
-                                        Function<Void, java.util.List<T>> getAllFunction,
-                                        Function<Integer, T> getByIdFunction) throws IOException {
-        if (Pattern.matches("^" + basePath + "$", path)) {
-            java.util.List<T> entities = getAllFunction.apply(null);
-            sendSuccess(exchange, gson.toJson(entities));
+    /**
+     * Статус из параметра запроса status или null, если параметр не задан.
+     * Неизвестный статус — IllegalArgumentException (ответ 400).
+     */
+    protected Status parseStatus(Map<String, String> params) {
+        String status = params.get("status");
+        return status == null ? null : Status.valueOf(status.toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * Время из параметра запроса в ISO-формате или null, если параметр не задан.
+     */
+    protected LocalDateTime parseTime(String value) {
+        return value == null ? null : LocalDateTime.parse(value);
+    }
+
+    /**
+     * Промежуток [from, to] из параметров запроса: оба конца обязательны, from не позже to.
+     * Проверяется до обращения к менеджеру, который отверг бы такой промежуток так же.
+     */
+    protected void requireWindow(LocalDateTime from, LocalDateTime to) {
+        if (from == null || to == null || from.isAfter(to)) {
+            throw new IllegalArgumentException("Некорректное окно времени: " + from + " — " + to);
+        }
+    }
+
+    /**
+     * Разбирает параметры страницы списка: after (курсор) + limit, либо offset + limit;
+     * без параметров — весь список. Некорректные значения отвергаются здесь же
+     * (IllegalArgumentException или исключение cursorParser), а страница выбирается
+     * только при вызове fetch() у результата.
+     */
+    protected <T, C> ListQuery<T> selectPage(HttpExchange exchange, Supplier<? extends List<T>> all,
+                                             PageQuery<T, Integer> byOffset,
+                                             Function<String, C> cursorParser, PageQuery<T, C> byCursor) {
+        Map<String, String> params = parseQuery(exchange);
+        String after = params.get("after");
+        String offset = params.get("offset");
+        String limit = params.get("limit");
+
+        int pageLimit = limit != null ? nonNegative(Integer.parseInt(limit)) : Integer.MAX_VALUE;
+        if (after != null) {
+            C cursor = cursorParser.apply(after);
+            return () -> byCursor.apply(cursor, pageLimit);
+        }
+        if (offset != null || limit != null) {
+            int pageOffset = offset != null ? nonNegative(Integer.parseInt(offset)) : 0;
+            return () -> byOffset.apply(pageOffset, pageLimit);
+        }
+        return all::get;
+    }
+
+    private static int nonNegative(int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("offset и limit не могут быть отрицательными");
+        }
+        return value;
+    }
+
+    /**
+     * Разобранный и проверенный запрос списка. Данные читаются только в fetch(), то есть уже
+     * после сравнения ETag: ответ 304 не стоит выборки и копирования сущностей.
+     */
+    @FunctionalInterface
+    protected interface ListQuery<T> {
+        List<T> fetch();
+    }
+
+    @FunctionalInterface
+    protected interface PageQuery<T, C> {
+        List<T> apply(C from, int limit);
+    }
 
-        } else if (Pattern.matches("^" + basePath + "\\d+$", path)) {
-            String[] pathParts = path.split("/");
-            int id = parsePathId(pathParts[pathParts.length - 1]);
+    /**
+     * Версии читаются до данных: если сущность изменится между ними, ETag окажется старше тела,
+     * и клиент просто получит новое тело при следующей проверке. listQuery только разбирает
+     * и проверяет параметры списка — до сравнения с If-None-Match, поэтому некорректный запрос
+     * всегда получает 400; сам список выбирается лишь тогда, когда ETag не совпал.
+     */
+    protected <T> void handleGetRequest(HttpExchange exchange, String path, Route route,
+                                        Supplier<ListQuery<T>> listQuery,
+                                        Function<Integer, T> getByIdFunction,
+                                        LongSupplier listVersion,
+                                        IntToLongFunction entityVersion) throws IOException {
+        int id;
+        if (route.matchesBase(path)) {
+            String etag = etag(listVersion.getAsLong());
+            ListQuery<T> query;
+            try {
+                query = listQuery.get();
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                sendBadRequest(exchange);
+                return;
+            }
+            if (!notModified(exchange, etag)) {
+                sendJsonList(exchange, query.fetch());
+            }
 
-            if (id == -1) {
+        } else if ((id = route.matchId(path)) != Route.NO_MATCH) {
+            if (id == Route.INVALID_ID) {
                 sendBadRequest(exchange);
                 return;
             }
 
+            long version = entityVersion.applyAsLong(id);
             T entity = getByIdFunction.apply(id);
             if (entity == null) {
                 sendNotFound(exchange);
-            } else {
-                sendSuccess(exchange, gson.toJson(entity));
+            } else if (version < 0 || !notModified(exchange, etag(version))) {
+                sendSuccess(exchange, gsonFor(exchange).toJson(entity));
             }
         } else {
             sendNotFound(exchange);
         }
     }
 
+    /**
+     * 406 — только конфликт по времени (пересечение или нет свободного окна),
+     * 404 — обновляемая сущность или эпик подзадачи не найдены, прочие ошибки запроса — 400.
+     */
     protected <T> void handlePostRequest(HttpExchange exchange, Class<T> entityClass,
                                          Function<T, T> addFunction,
                                          Function<T, T> updateFunction,
@@ -107,32 +315,36 @@ public abstract class BaseHttpHandler implements HttpHandler {
             T result;
             if (isNewFunction.apply(entity)) {
                 result = addFunction.apply(entity);
-                sendCreated(exchange, gson.toJson(result));
+                sendCreated(exchange, gsonFor(exchange).toJson(result));
             } else {
                 result = updateFunction.apply(entity);
-                sendSuccess(exchange, gson.toJson(result));
+                if (result == null) {
+                    sendNotFound(exchange);
+                    return;
+                }
+                sendSuccess(exchange, gsonFor(exchange).toJson(result));
             }
-        } catch (JsonSyntaxException e) {
-            sendBadRequest(exchange);
-        } catch (IllegalStateException e) {
+        } catch (TimeConflictException e) {
             sendHasInteractions(exchange);
+        } catch (EpicNotFoundException e) {
+            sendNotFound(exchange);
+        } catch (JsonSyntaxException | DateTimeParseException | IllegalStateException | IllegalArgumentException e) {
+            sendBadRequest(exchange);
         }
     }
 
-    protected <T> void handleDeleteRequest(HttpExchange exchange, String path, String basePath,
+    protected <T> void handleDeleteRequest(HttpExchange exchange, String path, Route route,
                                            Runnable clearAllFunction,
                                            Function<Integer, T> getByIdFunction,
                                            java.util.function.Consumer<Integer> deleteByIdFunction) throws IOException {
         try {
-            if (Pattern.matches("^" + basePath + "$", path)) {
+            int id;
+            if (route.matchesBase(path)) {
                 clearAllFunction.run();
                 sendSuccess(exchange, "All entities cleared");
 
-            } else if (Pattern.matches("^" + basePath + "\\d+$", path)) {
-                String[] pathParts = path.split("/");
-                int id = parsePathId(pathParts[pathParts.length - 1]);
-
-                if (id == -1) {
+            } else if ((id = route.matchId(path)) != Route.NO_MATCH) {
+                if (id == Route.INVALID_ID) {
                     sendBadRequest(exchange);
                     return;
                 }
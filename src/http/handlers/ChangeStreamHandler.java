@@ -0,0 +1,142 @@
+package http.handlers;
+
+import com.sun.net.httpserver.HttpExchange;
+import http.HttpMethod;
+import manager.ChangeEvent;
+import manager.ChangeFeed;
+import manager.TaskManager;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Поток изменений в формате Server-Sent Events: GET /tasks/events.
+ * Каждое событие ленты уходит как "id: эпоха:версия", "event: change", "data: JSON события".
+ * Переподключающийся клиент передаёт последний полученный id в заголовке Last-Event-ID
+ * (или параметре since) и получает только пропущенное; если лента уже вытеснила эти события
+ * или id выдан до перезапуска сервера (эпоха другая), приходит "event: reset" — клиенту нужно
+ * перечитать списки целиком. Без id поток начинается с текущего момента.
+ *
+ * <p>Подписки обслуживаются в отдельных виртуальных потоках: handle() сразу возвращает поток
+ * сервера, поэтому долгие соединения не занимают обработчики остальных запросов
+ * (в том числе при ThreadModel.SINGLE).
+ */
+public class ChangeStreamHandler extends BaseHttpHandler implements AutoCloseable {
+    static final long HEARTBEAT_SECONDS = 15;
+
+    private static final Route ROUTE = new Route("/tasks/events");
+
+    private final ExecutorService streams = Executors.newVirtualThreadPerTaskExecutor();
+
+    public ChangeStreamHandler(TaskManager taskManager) {
+        super(taskManager);
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        try {
+            String path = exchange.getRequestURI().getPath();
+            HttpMethod httpMethod;
+
+            try {
+                httpMethod = HttpMethod.valueOf(exchange.getRequestMethod());
+            } catch (IllegalArgumentException e) {
+                sendNotFound(exchange);
+                return;
+            }
+
+            if (httpMethod == HttpMethod.GET && ROUTE.matchesBase(path)) {
+                handleSubscribe(exchange);
+            } else {
+                sendNotFound(exchange);
+            }
+        } catch (Exception e) {
+            sendInternalServerError(exchange);
+        }
+    }
+
+    private void handleSubscribe(HttpExchange exchange) throws IOException {
+        long since;
+        try {
+            since = parseSince(exchange);
+        } catch (IllegalArgumentException e) {
+            sendBadRequest(exchange);
+            return;
+        }
+
+        exchange.getResponseHeaders().add("Content-Type", "text/event-stream;charset=utf-8");
+        exchange.getResponseHeaders().add("Cache-Control", "no-cache");
+        exchange.sendResponseHeaders(200, 0);
+        try {
+            streams.execute(() -> stream(exchange, since));
+        } catch (RejectedExecutionException e) {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Версия, с которой продолжить поток, или ChangeFeed.OTHER_EPOCH для id прошлого запуска.
+     */
+    private long parseSince(HttpExchange exchange) {
+        ChangeFeed feed = taskManager.getChangeFeed();
+        String lastEventId = exchange.getRequestHeaders().getFirst("Last-Event-ID");
+        if (lastEventId != null) {
+            return feed.versionOf(lastEventId.trim());
+        }
+        String since = parseQuery(exchange).get("since");
+        return since != null ? feed.versionOf(since) : feed.getVersion();
+    }
+
+    /**
+     * Отправляет события по мере появления; если их нет HEARTBEAT_SECONDS — комментарий-пинг,
+     * по которому клиент и прокси видят, что соединение живо. JSON всегда компактный:
+     * строка data не может содержать переводов строк.
+     */
+    private void stream(HttpExchange exchange, long since) {
+        ChangeFeed feed = taskManager.getChangeFeed();
+        try (Writer writer = new BufferedWriter(
+                new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8))) {
+            long version = since;
+            while (!Thread.currentThread().isInterrupted()) {
+                List<ChangeEvent> events = version == ChangeFeed.OTHER_EPOCH
+                        ? null
+                        : feed.await(version, HEARTBEAT_SECONDS, TimeUnit.SECONDS);
+                if (events == null) {
+                    version = feed.getVersion();
+                    writer.write("id: " + feed.token(version) + "\nevent: reset\ndata: " + version + "\n\n");
+                } else if (events.isEmpty()) {
+                    writer.write(": keep-alive\n\n");
+                } else {
+                    for (ChangeEvent event : events) {
+                        writer.write("id: " + feed.token(event.getVersion()) + "\nevent: change\ndata: "
+                                + gson.toJson(event) + "\n\n");
+                    }
+                    version = events.getLast().getVersion();
+                }
+                writer.flush();
+            }
+        } catch (IOException e) {
+            // Клиент закрыл соединение
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Прерывает все подписки; вызывается при остановке сервера.
+     */
+    @Override
+    public void close() {
+        streams.shutdownNow();
+    }
+}
@@ -0,0 +1,62 @@
+package http.handlers;
+
+import com.sun.net.httpserver.HttpExchange;
+import http.HttpMethod;
+import manager.ChangeSet;
+import manager.TaskManager;
+
+import java.io.IOException;
+
+/**
+ * Дельта-синхронизация: GET /tasks/changes?since=T возвращает сущности, созданные, изменённые
+ * или удалённые после токена T ("эпоха:версия"), и токен для следующего запроса. Без since —
+ * полный снимок. Если дельту построить нельзя (в том числе токен выдан до перезапуска сервера),
+ * отвечает 410 Gone, и клиент запрашивает полный снимок.
+ */
+public class ChangesHandler extends BaseHttpHandler {
+
+    private static final Route ROUTE = new Route("/tasks/changes");
+
+    public ChangesHandler(TaskManager taskManager) {
+        super(taskManager);
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        try {
+            String path = exchange.getRequestURI().getPath();
+            HttpMethod httpMethod;
+
+            try {
+                httpMethod = HttpMethod.valueOf(exchange.getRequestMethod());
+            } catch (IllegalArgumentException e) {
+                sendNotFound(exchange);
+                return;
+            }
+
+            if (httpMethod == HttpMethod.GET && ROUTE.matchesBase(path)) {
+                handleGetChanges(exchange);
+            } else {
+                sendNotFound(exchange);
+            }
+        } catch (Exception e) {
+            sendInternalServerError(exchange);
+        }
+    }
+
+    private void handleGetChanges(HttpExchange exchange) throws IOException {
+        ChangeSet changes;
+        try {
+            changes = taskManager.getChangesSince(parseQuery(exchange).get("since"));
+        } catch (IllegalArgumentException e) {
+            sendBadRequest(exchange);
+            return;
+        }
+
+        if (changes == null) {
+            sendGone(exchange);
+        } else {
+            sendSuccess(exchange, gsonFor(exchange).toJson(changes));
+        }
+    }
+}
@@ -1,14 +1,18 @@
 package http.handlers;
 
 import com.sun.net.httpserver.HttpExchange;
+import manager.Status;
 import manager.TaskManager;
 import task.Epic;
+import task.TypeTask;
 import http.HttpMethod;
 
 import java.io.IOException;
 
 public class EpicHandler extends BaseHttpHandler {
 
+    private static final Route ROUTE = new Route("/tasks/epic/");
+
     public EpicHandler(TaskManager taskManager) {
         super(taskManager);
     }
@@ -28,9 +32,11 @@ public class EpicHandler extends BaseHttpHandler {
 
             switch (httpMethod) {
                 case GET:
-                    handleGetRequest(exchange, path, "/tasks/epic/",
-                            v -> taskManager.getEpics(),
-                            taskManager::getEpic);
+                    handleGetRequest(exchange, path, ROUTE,
+                            () -> epicsQuery(exchange),
+                            taskManager::getEpic,
+                            () -> taskManager.getCollectionVersion(TypeTask.EPIC),
+                            taskManager::getEntityVersion);
                     break;
                 case POST:
                     handlePostRequest(exchange, Epic.class,
@@ -39,7 +45,7 @@ public class EpicHandler extends BaseHttpHandler {
                             epic -> epic.getTaskId() == 0);
                     break;
                 case DELETE:
-                    handleDeleteRequest(exchange, path, "/tasks/epic/",
+                    handleDeleteRequest(exchange, path, ROUTE,
                             taskManager::clearEpics,
                             taskManager::getEpic,
                             taskManager::deleteEpic);
@@ -51,4 +57,12 @@ public class EpicHandler extends BaseHttpHandler {
             sendInternalServerError(exchange);
         }
     }
+    private ListQuery<Epic> epicsQuery(HttpExchange exchange) {
+        Status status = parseStatus(parseQuery(exchange));
+        if (status != null) {
+            return () -> taskManager.getEpicsByStatus(status);
+        }
+        return selectPage(exchange, taskManager::getEpics, taskManager::getEpics,
+                Integer::valueOf, taskManager::getEpicsAfter);
+    }
 }
\ No newline at end of file
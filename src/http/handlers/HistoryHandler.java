@@ -7,10 +7,11 @@ import http.HttpMethod;
 
 import java.io.IOException;
 import java.util.List;
-import java.util.regex.Pattern;
 
 public class HistoryHandler extends BaseHttpHandler {
 
+    private static final Route ROUTE = new Route("/tasks/history/");
+
     public HistoryHandler(TaskManager taskManager) {
         super(taskManager);
     }
@@ -29,7 +30,7 @@ public class HistoryHandler extends BaseHttpHandler {
             }
 
             if (httpMethod == HttpMethod.GET) {
-                if (Pattern.matches("^/tasks/history/$", path)) {
+                if (ROUTE.matchesBase(path)) {
                     handleGetHistory(exchange);
                 } else {
                     sendNotFound(exchange);
@@ -44,6 +45,6 @@ public class HistoryHandler extends BaseHttpHandler {
 
     private void handleGetHistory(HttpExchange exchange) throws IOException {
         List<Task> history = taskManager.getHistory();
-        sendSuccess(exchange, gson.toJson(history));
+        sendJsonList(exchange, history);
     }
 }
\ No newline at end of file
@@ -2,15 +2,20 @@ package http.handlers;
 
 import com.sun.net.httpserver.HttpExchange;
 import manager.TaskManager;
+import manager.TimeSlot;
 import task.Task;
 import http.HttpMethod;
 
 import java.io.IOException;
-import java.util.List;
-import java.util.regex.Pattern;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
 
 public class PrioritizedHandler extends BaseHttpHandler {
 
+    private static final Route ROUTE = new Route("/tasks/prioritized");
+    private static final Route SLOTS_ROUTE = new Route("/tasks/prioritized/slots");
+
     public PrioritizedHandler(TaskManager taskManager) {
         super(taskManager);
     }
@@ -29,8 +34,10 @@ public class PrioritizedHandler extends BaseHttpHandler {
             }
 
             if (httpMethod == HttpMethod.GET) {
-                if (Pattern.matches("^/tasks/prioritized$", path)) {
+                if (ROUTE.matchesBase(path)) {
                     handleGetPrioritizedTasks(exchange);
+                } else if (SLOTS_ROUTE.matchesBase(path)) {
+                    handleGetFreeSlots(exchange);
                 } else {
                     sendNotFound(exchange);
                 }
@@ -43,7 +50,53 @@ public class PrioritizedHandler extends BaseHttpHandler {
     }
 
     private void handleGetPrioritizedTasks(HttpExchange exchange) throws IOException {
-        List<Task> prioritizedTasks = taskManager.getPrioritizedTasks();
-        sendSuccess(exchange, gson.toJson(prioritizedTasks));
+        String etag = etag(scheduleVersion());
+        ListQuery<Task> query;
+        try {
+            Map<String, String> params = parseQuery(exchange);
+            if (params.containsKey("from") || params.containsKey("to")) {
+                LocalDateTime from = parseTime(params.get("from"));
+                LocalDateTime to = parseTime(params.get("to"));
+                requireWindow(from, to);
+                query = () -> taskManager.getPrioritizedTasksBetween(from, to);
+            } else {
+                query = selectPage(exchange, taskManager::getPrioritizedTasks,
+                        taskManager::getPrioritizedTasks, LocalDateTime::parse, taskManager::getPrioritizedTasksAfter);
+            }
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            sendBadRequest(exchange);
+            return;
+        }
+        if (!notModified(exchange, etag)) {
+            sendJsonList(exchange, query.fetch());
+        }
+    }
+
+    /**
+     * Свободные окна: duration (минуты) обязателен, from и to задают промежуток поиска,
+     * limit — сколько окон вернуть (по умолчанию одно, самое раннее).
+     */
+    private void handleGetFreeSlots(HttpExchange exchange) throws IOException {
+        String etag = etag(scheduleVersion());
+        ListQuery<TimeSlot> query;
+        try {
+            Map<String, String> params = parseQuery(exchange);
+            String limit = params.get("limit");
+            long duration = Long.parseLong(params.get("duration"));
+            int slotLimit = limit != null ? Integer.parseInt(limit) : 1;
+            LocalDateTime from = parseTime(params.get("from"));
+            LocalDateTime to = parseTime(params.get("to"));
+            requireWindow(from, to);
+            if (duration < 0 || slotLimit <= 0) {
+                throw new IllegalArgumentException("Длительность не может быть отрицательной, limit должен быть положительным");
+            }
+            query = () -> taskManager.findFreeSlots(duration, from, to, slotLimit);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            sendBadRequest(exchange);
+            return;
+        }
+        if (!notModified(exchange, etag)) {
+            sendJsonList(exchange, query.fetch());
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,48 @@
+package http.handlers;
+
+/**
+ * Заранее разобранный путь вида "/tasks/task/" или "/tasks/task/{id}".
+ * Сопоставление и извлечение id выполняются без регулярных выражений и без split().
+ */
+public class Route {
+    public static final int NO_MATCH = -2;
+    public static final int INVALID_ID = -1;
+
+    private final String basePath;
+
+    public Route(String basePath) {
+        this.basePath = basePath;
+    }
+
+    public String getBasePath() {
+        return basePath;
+    }
+
+    public boolean matchesBase(String path) {
+        return basePath.equals(path);
+    }
+
+    /**
+     * Возвращает id из пути basePath + цифры, INVALID_ID если число не помещается в int,
+     * и NO_MATCH если путь не подходит.
+     */
+    public int matchId(String path) {
+        int prefixLength = basePath.length();
+        int length = path.length();
+        if (length == prefixLength || !path.startsWith(basePath)) {
+            return NO_MATCH;
+        }
+
+        long id = 0;
+        for (int i = prefixLength; i < length; i++) {
+            char c = path.charAt(i);
+            if (c < '0' || c > '9') {
+                return NO_MATCH;
+            }
+            if (id <= Integer.MAX_VALUE) {
+                id = id * 10 + (c - '0');
+            }
+        }
+        return id > Integer.MAX_VALUE ? INVALID_ID : (int) id;
+    }
+}
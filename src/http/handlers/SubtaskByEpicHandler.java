@@ -1,17 +1,21 @@
 package http.handlers;
 
 import com.sun.net.httpserver.HttpExchange;
+import manager.Status;
 import manager.TaskManager;
 import task.Epic;
 import task.Subtask;
+import task.TypeTask;
 import http.HttpMethod;
 
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.regex.Pattern;
+import java.util.List;
 
 public class SubtaskByEpicHandler extends BaseHttpHandler {
 
+    private static final Route ROUTE = new Route("/tasks/subtask/epic/");
+
     public SubtaskByEpicHandler(TaskManager taskManager) {
         super(taskManager);
     }
@@ -30,8 +34,9 @@ public class SubtaskByEpicHandler extends BaseHttpHandler {
             }
 
             if (httpMethod == HttpMethod.GET) {
-                if (Pattern.matches("^/tasks/subtask/epic/\\d+$", path)) {
-                    handleGetSubtasksByEpic(exchange, path);
+                int epicId = ROUTE.matchId(path);
+                if (epicId != Route.NO_MATCH) {
+                    handleGetSubtasksByEpic(exchange, epicId);
                 } else {
                     sendNotFound(exchange);
                 }
@@ -43,21 +48,33 @@ public class SubtaskByEpicHandler extends BaseHttpHandler {
         }
     }
 
-    private void handleGetSubtasksByEpic(HttpExchange exchange, String path) throws IOException {
-        String[] pathParts = path.split("/");
-        int epicId = parsePathId(pathParts[4]);
+    private void handleGetSubtasksByEpic(HttpExchange exchange, int epicId) throws IOException {
+        if (epicId == Route.INVALID_ID) {
+            sendBadRequest(exchange);
+            return;
+        }
 
-        if (epicId == -1) {
+        Status status;
+        try {
+            status = parseStatus(parseQuery(exchange));
+        } catch (IllegalArgumentException e) {
             sendBadRequest(exchange);
             return;
         }
 
+        long version = Math.max(taskManager.getCollectionVersion(TypeTask.SUBTASK),
+                taskManager.getCollectionVersion(TypeTask.EPIC));
         Epic epic = taskManager.getEpic(epicId);
         if (epic == null) {
             sendNotFound(exchange);
+        } else if (notModified(exchange, etag(version))) {
+            // Клиент уже видел этот список
+        } else if (status != null) {
+            List<Subtask> subtasks = taskManager.getSubtasksByEpic(epicId, status);
+            sendJsonList(exchange, subtasks);
         } else {
             ArrayList<Subtask> subtasks = taskManager.getEpicSubtasks(epic);
-            sendSuccess(exchange, gson.toJson(subtasks));
+            sendJsonList(exchange, subtasks);
         }
     }
 }
\ No newline at end of file
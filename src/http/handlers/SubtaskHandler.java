@@ -1,14 +1,19 @@
 package http.handlers;
 
 import com.sun.net.httpserver.HttpExchange;
+import manager.Status;
 import manager.TaskManager;
 import task.Subtask;
+import task.TypeTask;
 import http.HttpMethod;
 
 import java.io.IOException;
+import java.util.Map;
 
 public class SubtaskHandler extends BaseHttpHandler {
 
+    private static final Route ROUTE = new Route("/tasks/subtask/");
+
     public SubtaskHandler(TaskManager taskManager) {
         super(taskManager);
     }
@@ -28,18 +33,20 @@ public class SubtaskHandler extends BaseHttpHandler {
 
             switch (httpMethod) {
                 case GET:
-                    handleGetRequest(exchange, path, "/tasks/subtask/",
-                            v -> taskManager.getSubtasks(),
-                            taskManager::getSubtask);
+                    handleGetRequest(exchange, path, ROUTE,
+                            () -> subtasksQuery(exchange),
+                            taskManager::getSubtask,
+                            () -> taskManager.getCollectionVersion(TypeTask.SUBTASK),
+                            taskManager::getEntityVersion);
                     break;
                 case POST:
                     handlePostRequest(exchange, Subtask.class,
-                            taskManager::addSubtask,
+                            subtask -> addSubtask(exchange, subtask),
                             taskManager::updateSubtask,
                             subtask -> subtask.getTaskId() == 0);
                     break;
                 case DELETE:
-                    handleDeleteRequest(exchange, path, "/tasks/subtask/",
+                    handleDeleteRequest(exchange, path, ROUTE,
                             taskManager::clearSubtasks,
                             taskManager::getSubtask,
                             taskManager::deleteSubtask);
@@ -51,4 +58,34 @@ public class SubtaskHandler extends BaseHttpHandler {
             sendInternalServerError(exchange);
         }
     }
+    /**
+     * С параметрами from и to подзадача без startTime ставится в первое свободное окно промежутка.
+     */
+    private Subtask addSubtask(HttpExchange exchange, Subtask subtask) {
+        Map<String, String> params = parseQuery(exchange);
+        if (params.containsKey("from") || params.containsKey("to")) {
+            return taskManager.addSubtask(subtask, parseTime(params.get("from")), parseTime(params.get("to")));
+        }
+        return taskManager.addSubtask(subtask);
+    }
+
+    /**
+     * Фильтры status и epic можно сочетать; без них — постраничная выдача всех подзадач.
+     */
+    private ListQuery<Subtask> subtasksQuery(HttpExchange exchange) {
+        Map<String, String> params = parseQuery(exchange);
+        Status status = parseStatus(params);
+        String epic = params.get("epic");
+        if (epic != null) {
+            int epicId = Integer.parseInt(epic);
+            return status != null
+                    ? () -> taskManager.getSubtasksByEpic(epicId, status)
+                    : () -> taskManager.getSubtasksByEpic(epicId);
+        }
+        if (status != null) {
+            return () -> taskManager.getSubtasksByStatus(status);
+        }
+        return selectPage(exchange, taskManager::getSubtasks, taskManager::getSubtasks,
+                Integer::valueOf, taskManager::getSubtasksAfter);
+    }
 }
\ No newline at end of file
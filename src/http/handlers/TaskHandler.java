@@ -2,14 +2,19 @@ package http.handlers;
 
 import com.sun.net.httpserver.HttpExchange;
 import http.HttpMethod;
+import manager.Status;
 import manager.TaskManager;
 import task.Task;
+import task.TypeTask;
 
 import java.io.IOException;
+import java.util.Map;
 
 
 public class TaskHandler extends BaseHttpHandler {
 
+    private static final Route ROUTE = new Route("/tasks/task/");
+
     public TaskHandler(TaskManager taskManager) {
         super(taskManager);
     }
@@ -29,18 +34,20 @@ public class TaskHandler extends BaseHttpHandler {
 
             switch (httpMethod) {
                 case GET:
-                    handleGetRequest(exchange, path, "/tasks/task/",
-                            v -> taskManager.getTasks(),
-                            taskManager::getTask);
+                    handleGetRequest(exchange, path, ROUTE,
+                            () -> tasksQuery(exchange),
+                            taskManager::getTask,
+                            () -> taskManager.getCollectionVersion(TypeTask.TASK),
+                            taskManager::getEntityVersion);
                     break;
                 case POST:
                     handlePostRequest(exchange, Task.class,
-                            taskManager::addTask,
+                            task -> addTask(exchange, task),
                             taskManager::updateTask,
                             task -> task.getTaskId() == 0);
                     break;
                 case DELETE:
-                    handleDeleteRequest(exchange, path, "/tasks/task/",
+                    handleDeleteRequest(exchange, path, ROUTE,
                             taskManager::clearTasks,
                             taskManager::getTask,
                             taskManager::deleteTask);
@@ -50,4 +57,24 @@ public class TaskHandler extends BaseHttpHandler {
             sendInternalServerError(exchange);
         }
     }
+
+    /**
+     * С параметрами from и to задача без startTime ставится в первое свободное окно промежутка.
+     */
+    private Task addTask(HttpExchange exchange, Task task) {
+        Map<String, String> params = parseQuery(exchange);
+        if (params.containsKey("from") || params.containsKey("to")) {
+            return taskManager.addTask(task, parseTime(params.get("from")), parseTime(params.get("to")));
+        }
+        return taskManager.addTask(task);
+    }
+
+    private ListQuery<Task> tasksQuery(HttpExchange exchange) {
+        Status status = parseStatus(parseQuery(exchange));
+        if (status != null) {
+            return () -> taskManager.getTasksByStatus(status);
+        }
+        return selectPage(exchange, taskManager::getTasks, taskManager::getTasks,
+                Integer::valueOf, taskManager::getTasksAfter);
+    }
 }
\ No newline at end of file
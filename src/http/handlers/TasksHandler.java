@@ -6,11 +6,13 @@ import manager.TaskManager;
 import task.Task;
 
 import java.io.IOException;
-import java.util.List;
-import java.util.regex.Pattern;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 
 public class TasksHandler extends BaseHttpHandler {
 
+    private static final Route ROUTE = new Route("/tasks/");
+
     public TasksHandler(TaskManager taskManager) {
         super(taskManager);
     }
@@ -29,7 +31,7 @@ public class TasksHandler extends BaseHttpHandler {
             }
 
             if (httpMethod == HttpMethod.GET) {
-                if (Pattern.matches("^/tasks/$", path)) {
+                if (ROUTE.matchesBase(path)) {
                     handleGetPrioritizedTasks(exchange);
                 } else {
                     sendNotFound(exchange);
@@ -43,7 +45,17 @@ public class TasksHandler extends BaseHttpHandler {
     }
 
     private void handleGetPrioritizedTasks(HttpExchange exchange) throws IOException {
-        List<Task> prioritizedTasks = taskManager.getPrioritizedTasks();
-        sendSuccess(exchange, gson.toJson(prioritizedTasks));
+        String etag = etag(scheduleVersion());
+        ListQuery<Task> query;
+        try {
+            query = selectPage(exchange, taskManager::getPrioritizedTasks,
+                    taskManager::getPrioritizedTasks, LocalDateTime::parse, taskManager::getPrioritizedTasksAfter);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            sendBadRequest(exchange);
+            return;
+        }
+        if (!notModified(exchange, etag)) {
+            sendJsonList(exchange, query.fetch());
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,283 @@
+package manager;
+
+import task.Epic;
+import task.Subtask;
+import task.Task;
+import task.TypeTask;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Компактный бинарный формат снимка.
+ * <pre>
+ * header:  "KNBN" | version (byte) | count (varint)
+ * record:  length (varint) | payload | CRC32 payload (int)
+ * payload: type (byte) | id (varint) | status (byte) | name | description
+ *          | [epicId (varint) — только у подзадач]
+ *          | hasStart (byte) | [epochSecond (zigzag varlong) | nano (varint)]
+ *          | duration (zigzag varlong)
+ * string:  length + 1 (varint, 0 — null) | UTF-8 байты
+ * </pre>
+ * Время хранится в секундах эпохи UTC, поэтому при чтении не нужен разбор строк.
+ * Длина и контрольная сумма позволяют пропустить повреждённую запись и читать дальше.
+ * Снимки версии 1 (без длины и CRC) не читаются: их записи нельзя проверить.
+ */
+final class BinarySnapshot {
+    static final byte[] MAGIC = {'K', 'N', 'B', 'N'};
+    static final int VERSION = 2;
+
+    private static final TypeTask[] TYPES = TypeTask.values();
+    private static final Status[] STATUSES = Status.values();
+
+    private BinarySnapshot() {
+    }
+
+    static void write(File file, Collection<Task> tasks) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(file.toPath()), 1 << 16))) {
+            out.write(MAGIC);
+            out.writeByte(VERSION);
+            writeVarLong(out, tasks.size());
+
+            RecordBuffer record = new RecordBuffer();
+            DataOutputStream recordOut = new DataOutputStream(record);
+            CRC32 crc = new CRC32();
+            for (Task task : tasks) {
+                record.reset();
+                writeTask(recordOut, task);
+                crc.reset();
+                crc.update(record.buffer(), 0, record.size());
+
+                writeVarLong(out, record.size());
+                record.writeTo(out);
+                out.writeInt((int) crc.getValue());
+            }
+        }
+    }
+
+    static Map<Integer, Task> read(File file) throws IOException {
+        return read(file, null);
+    }
+
+    static Map<Integer, Task> read(File file, RecoveryReport report) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Бинарный снимок больше 2 ГБ не поддерживается");
+            }
+            return read(channel.map(FileChannel.MapMode.READ_ONLY, 0, size), report);
+        }
+    }
+
+    /**
+     * Разбирает снимок. Заголовок обязан быть корректным; повреждённые записи при report == null
+     * приводят к IOException, иначе пропускаются и попадают в report.
+     */
+    static Map<Integer, Task> read(ByteBuffer buffer, RecoveryReport report) throws IOException {
+        int version;
+        int count;
+        try {
+            for (byte expected : MAGIC) {
+                if (buffer.get() != expected) {
+                    throw new IOException("Файл не является бинарным снимком");
+                }
+            }
+            version = buffer.get();
+            count = (int) readVarLong(buffer);
+        } catch (BufferUnderflowException | IllegalStateException e) {
+            throw new IOException("Заголовок бинарного снимка повреждён", e);
+        }
+        if (version == 1) {
+            throw new IOException("Снимок версии 1 (без контрольных сумм записей) больше не поддерживается");
+        }
+        if (version != VERSION) {
+            throw new IOException("Неподдерживаемая версия снимка: " + version);
+        }
+
+        Map<Integer, Task> tasks = new LinkedHashMap<>(Math.max(16, Math.min(count, 1 << 20) * 4 / 3 + 1));
+        CRC32 crc = new CRC32();
+        for (int i = 0; i < count; i++) {
+            int recordStart = buffer.position();
+            if (!buffer.hasRemaining()) {
+                damaged(report, recordStart, recordStart, "файл обрезан: прочитано " + i + " из " + count + " записей");
+                break;
+            }
+
+            long length;
+            try {
+                length = readVarLong(buffer);
+            } catch (RuntimeException e) {
+                damaged(report, recordStart, buffer.limit(), "длина записи повреждена");
+                break;
+            }
+            if (length < 0 || length > buffer.remaining() - Integer.BYTES) {
+                damaged(report, recordStart, buffer.limit(), "запись выходит за конец файла");
+                break;
+            }
+
+            int payloadStart = buffer.position();
+            int payloadEnd = payloadStart + (int) length;
+            int recordEnd = payloadEnd + Integer.BYTES;
+            ByteBuffer payload = buffer.slice(payloadStart, (int) length);
+            crc.reset();
+            crc.update(payload.duplicate());
+            int expected = buffer.getInt(payloadEnd);
+            buffer.position(recordEnd);
+
+            if ((int) crc.getValue() != expected) {
+                damaged(report, recordStart, recordEnd, "контрольная сумма записи не совпадает");
+                continue;
+            }
+            try {
+                Task task = readTask(payload);
+                tasks.put(task.getTaskId(), task);
+            } catch (RuntimeException | IOException e) {
+                damaged(report, recordStart, recordEnd, "запись не разбирается: " + e.getMessage());
+            }
+        }
+        return tasks;
+    }
+
+    private static void damaged(RecoveryReport report, long start, long end, String reason) throws IOException {
+        if (report == null) {
+            throw new IOException("Снимок повреждён: [" + start + ", " + end + ") " + reason);
+        }
+        report.damaged(start, end, reason);
+    }
+
+    private static void writeTask(DataOutputStream out, Task task) throws IOException {
+        TypeTask type = TypeTask.valueOf(task.getClass().getSimpleName().toUpperCase());
+        out.writeByte(type.ordinal());
+        writeVarLong(out, task.getTaskId());
+        out.writeByte(task.getStatus().ordinal());
+        writeString(out, task.getTaskName());
+        writeString(out, task.getTaskDescription());
+        if (task instanceof Subtask) {
+            writeVarLong(out, ((Subtask) task).getEpicId());
+        }
+
+        LocalDateTime startTime = task.getStartTime();
+        if (startTime == null) {
+            out.writeByte(0);
+        } else {
+            out.writeByte(1);
+            writeVarLong(out, zigzag(startTime.toEpochSecond(ZoneOffset.UTC)));
+            writeVarLong(out, startTime.getNano());
+        }
+        writeVarLong(out, zigzag(task.getDuration()));
+    }
+
+    private static Task readTask(ByteBuffer buffer) throws IOException {
+        int typeIndex = buffer.get();
+        int id = (int) readVarLong(buffer);
+        int statusIndex = buffer.get();
+        if (typeIndex < 0 || typeIndex >= TYPES.length || statusIndex < 0 || statusIndex >= STATUSES.length) {
+            throw new IOException("Неизвестный тип или статус задачи в записи " + id);
+        }
+        Status status = STATUSES[statusIndex];
+        String name = readString(buffer);
+        String description = readString(buffer);
+        TypeTask type = TYPES[typeIndex];
+        int epicId = type == TypeTask.SUBTASK ? (int) readVarLong(buffer) : -1;
+
+        LocalDateTime startTime = null;
+        if (buffer.get() != 0) {
+            long epochSecond = unzigzag(readVarLong(buffer));
+            int nano = (int) readVarLong(buffer);
+            startTime = LocalDateTime.ofEpochSecond(epochSecond, nano, ZoneOffset.UTC);
+        }
+        long duration = unzigzag(readVarLong(buffer));
+
+        switch (type) {
+            case TASK:
+                return new Task(name, description, id, status, startTime, duration);
+            case EPIC:
+                return new Epic(name, description, id, status, startTime, duration);
+            default:
+                return new Subtask(name, description, id, status, epicId, startTime, duration);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            writeVarLong(out, 0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(out, bytes.length + 1L);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = (int) readVarLong(buffer) - 1;
+        if (length < 0) {
+            return null;
+        }
+        String value;
+        if (buffer.hasArray()) {
+            value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length,
+                    StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + length);
+        } else {
+            byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            value = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return value;
+    }
+
+    private static class RecordBuffer extends ByteArrayOutputStream {
+        RecordBuffer() {
+            super(256);
+        }
+
+        byte[] buffer() {
+            return buf;
+        }
+    }
+
+    private static void writeVarLong(OutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarLong(ByteBuffer buffer) {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = buffer.get();
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new IllegalStateException("Слишком длинное varint-число");
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
@@ -0,0 +1,88 @@
+package manager;
+
+import task.Epic;
+import task.ImmutableTask;
+import task.Subtask;
+import task.Task;
+import task.TypeTask;
+
+/**
+ * Событие ленты изменений: что произошло с сущностью и под какой версией.
+ * Для ADDED и UPDATED хранится неизменяемая копия состояния на момент изменения,
+ * для DELETED копии нет.
+ */
+public class ChangeEvent {
+    public enum Type {
+        ADDED,
+        UPDATED,
+        DELETED
+    }
+
+    private final long version;
+    private final Type type;
+    private final TypeTask entity;
+    private final int id;
+    private final int epicId;
+    private final ImmutableTask snapshot;
+
+    public ChangeEvent(long version, Type type, TypeTask entity, int id, int epicId, ImmutableTask snapshot) {
+        this.version = version;
+        this.type = type;
+        this.entity = entity;
+        this.id = id;
+        this.epicId = epicId;
+        this.snapshot = snapshot;
+    }
+
+    static ChangeEvent of(long version, Type type, Task task) {
+        TypeTask entity;
+        int epicId = 0;
+        if (task instanceof Subtask subtask) {
+            entity = TypeTask.SUBTASK;
+            epicId = subtask.getEpicId();
+        } else if (task instanceof Epic) {
+            entity = TypeTask.EPIC;
+        } else {
+            entity = TypeTask.TASK;
+        }
+        ImmutableTask snapshot = type == Type.DELETED ? null : new ImmutableTask(task);
+        return new ChangeEvent(version, type, entity, task.getTaskId(), epicId, snapshot);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public TypeTask getEntity() {
+        return entity;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * id эпика для подзадачи, 0 для остальных сущностей.
+     */
+    public int getEpicId() {
+        return epicId;
+    }
+
+    public ImmutableTask getSnapshot() {
+        return snapshot;
+    }
+
+    @Override
+    public String toString() {
+        return "ChangeEvent{" +
+                "version=" + version +
+                ", type=" + type +
+                ", entity=" + entity +
+                ", id=" + id +
+                '}';
+    }
+}
@@ -0,0 +1,145 @@
+package manager;
+
+import task.Task;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Лента изменений менеджера: кольцевой буфер последних capacity событий с монотонно
+ * растущими версиями (первое событие — версия 1). Подписчик помнит последнюю
+ * полученную версию и запрашивает только то, что появилось после неё.
+ *
+ * <p>Лента синхронизирована собственной блокировкой, независимо от блокировок менеджера.
+ * Ожидание новых событий построено на Condition, а не на wait(): так ждущие
+ * виртуальные потоки не занимают поток-носитель.
+ */
+public class ChangeFeed {
+    public static final int DEFAULT_CAPACITY = 1024;
+    /**
+     * Результат versionOf для токена, выданного другим запуском менеджера.
+     */
+    public static final long OTHER_EPOCH = Long.MIN_VALUE;
+
+    private final ChangeEvent[] events;
+    private final long epoch = ThreadLocalRandom.current().nextLong();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition appended = lock.newCondition();
+    private long version;
+
+    public ChangeFeed(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Ёмкость ленты изменений должна быть положительной");
+        }
+        this.events = new ChangeEvent[capacity];
+    }
+
+    ChangeEvent append(ChangeEvent.Type type, Task task) {
+        lock.lock();
+        try {
+            version++;
+            ChangeEvent event = ChangeEvent.of(version, type, task);
+            events[slot(version)] = event;
+            appended.signalAll();
+            return event;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getVersion() {
+        lock.lock();
+        try {
+            return version;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Случайный идентификатор ленты: версии разных запусков менеджера начинаются заново,
+     * и эпоха не даёт их спутать (например, в ETag).
+     */
+    public long getEpoch() {
+        return epoch;
+    }
+
+    /**
+     * Токен версии для клиентов: "эпоха:версия". Голая версия после перезапуска указывала бы
+     * на другие события, поэтому клиенты синхронизации получают и возвращают только токены.
+     */
+    public String token(long version) {
+        return Long.toHexString(epoch) + ":" + version;
+    }
+
+    /**
+     * Версия из токена этого запуска или OTHER_EPOCH, если токен выдан другим запуском.
+     * Некорректный токен — IllegalArgumentException.
+     */
+    public long versionOf(String token) {
+        int separator = token.indexOf(':');
+        if (separator <= 0) {
+            throw new IllegalArgumentException("Некорректный токен версии: " + token);
+        }
+        long tokenEpoch = Long.parseUnsignedLong(token.substring(0, separator).trim(), 16);
+        long tokenVersion = Long.parseLong(token.substring(separator + 1).trim());
+        if (tokenVersion < 0) {
+            throw new IllegalArgumentException("Некорректный токен версии: " + token);
+        }
+        return tokenEpoch == epoch ? tokenVersion : OTHER_EPOCH;
+    }
+
+    public int getCapacity() {
+        return events.length;
+    }
+
+    /**
+     * События с версией больше since по возрастанию версий. Возвращает null, если часть из них
+     * уже вытеснена из буфера или since больше текущей версии: клиенту нужна полная
+     * пересинхронизация.
+     */
+    public List<ChangeEvent> since(long since) {
+        lock.lock();
+        try {
+            return collect(since);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Как since, но если новых событий нет, ждёт их не дольше timeout.
+     * По истечении времени возвращает пустой список.
+     */
+    public List<ChangeEvent> await(long since, long timeout, TimeUnit unit) throws InterruptedException {
+        long remaining = unit.toNanos(timeout);
+        lock.lock();
+        try {
+            while (version == since && remaining > 0) {
+                remaining = appended.awaitNanos(remaining);
+            }
+            return collect(since);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private List<ChangeEvent> collect(long since) {
+        if (since < 0 || since > version || since < version - events.length) {
+            return null;
+        }
+        List<ChangeEvent> result = new ArrayList<>((int) (version - since));
+        for (long v = since + 1; v <= version; v++) {
+            result.add(events[slot(v)]);
+        }
+        return result;
+    }
+
+    private int slot(long eventVersion) {
+        return (int) (eventVersion % events.length);
+    }
+}
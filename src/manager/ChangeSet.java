@@ -0,0 +1,31 @@
+package manager;
+
+import java.util.List;
+
+/**
+ * Ответ дельта-синхронизации: изменения после запрошенной версии, текущая версия менеджера
+ * и токен "эпоха:версия", который клиент передаёт в следующий запрос.
+ */
+public class ChangeSet {
+    private final String token;
+    private final long version;
+    private final List<ChangeEvent> changes;
+
+    public ChangeSet(String token, long version, List<ChangeEvent> changes) {
+        this.token = token;
+        this.version = version;
+        this.changes = changes;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public List<ChangeEvent> getChanges() {
+        return changes;
+    }
+}
@@ -0,0 +1,12 @@
+package manager;
+
+/**
+ * Потокобезопасная версия InMemoryTaskManager для многопоточного HTTP-сервера:
+ * менеджер в памяти под блокировкой LockingTaskManager, история — под своим монитором.
+ */
+public class ConcurrentTaskManager extends LockingTaskManager {
+
+    public ConcurrentTaskManager() {
+        super(new InMemoryTaskManager(new SynchronizedHistoryManager(Managers.getDefaultHistory())));
+    }
+}
@@ -0,0 +1,123 @@
+package manager;
+
+import task.Task;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+/**
+ * Версии сущностей для дельта-синхронизации. У живой сущности запоминаются версия создания
+ * и версия последнего изменения, у удалённой — надгробие с версией удаления. Записи упорядочены
+ * по версии, поэтому выборка "изменилось после N" стоит O(log N + число изменений).
+ * Сущности, загруженные из файла, получают версию 0.
+ *
+ * <p>Надгробий хранится не больше tombstoneCapacity: при вытеснении самого старого растёт
+ * горизонт, и клиенту с версией меньше горизонта нужна полная синхронизация.
+ */
+class EntityVersions {
+    static final int DEFAULT_TOMBSTONE_CAPACITY = 4096;
+    static final long NO_VERSION = -1;
+
+    private final Map<Integer, Entry> byId = new HashMap<>();
+    private final NavigableSet<Entry> byVersion = new TreeSet<>(
+            Comparator.comparingLong((Entry entry) -> entry.version).thenComparingInt(entry -> entry.id));
+    private final Deque<Entry> tombstones = new ArrayDeque<>();
+    private final int tombstoneCapacity;
+    private long horizon;
+
+    EntityVersions(int tombstoneCapacity) {
+        if (tombstoneCapacity <= 0) {
+            throw new IllegalArgumentException("Число надгробий должно быть положительным");
+        }
+        this.tombstoneCapacity = tombstoneCapacity;
+    }
+
+    void load(Task task) {
+        put(new Entry(task.getTaskId(), 0, 0, task, null));
+    }
+
+    void record(ChangeEvent event, Task task) {
+        Entry previous = byId.get(event.getId());
+        long created = previous != null && previous.task != null ? previous.created : event.getVersion();
+        if (event.getType() == ChangeEvent.Type.DELETED) {
+            Entry tombstone = new Entry(event.getId(), event.getVersion(), created, null, event);
+            put(tombstone);
+            tombstones.addLast(tombstone);
+            if (tombstones.size() > tombstoneCapacity) {
+                evictOldestTombstone();
+            }
+        } else {
+            put(new Entry(event.getId(), event.getVersion(), created, task, null));
+        }
+    }
+
+    /**
+     * Версия последнего изменения живой сущности или NO_VERSION, если её нет.
+     */
+    long versionOf(int id) {
+        Entry entry = byId.get(id);
+        return entry == null || entry.task == null ? NO_VERSION : entry.version;
+    }
+
+    long getHorizon() {
+        return horizon;
+    }
+
+    /**
+     * Изменения после версии since: живые сущности — со снимком текущего состояния (ADDED, если
+     * созданы после since, иначе UPDATED), удалённые — надгробием. Сущности, созданные и удалённые
+     * после since, клиент не видел, поэтому они пропускаются. since = -1 даёт полный снимок.
+     */
+    List<ChangeEvent> since(long since) {
+        List<ChangeEvent> changes = new ArrayList<>();
+        for (Entry entry : byVersion.tailSet(new Entry(Integer.MAX_VALUE, since, 0, null, null), false)) {
+            if (entry.task != null) {
+                ChangeEvent.Type type = entry.created > since ? ChangeEvent.Type.ADDED : ChangeEvent.Type.UPDATED;
+                changes.add(ChangeEvent.of(entry.version, type, entry.task));
+            } else if (entry.created <= since) {
+                changes.add(entry.tombstone);
+            }
+        }
+        return changes;
+    }
+
+    private void put(Entry entry) {
+        Entry previous = byId.put(entry.id, entry);
+        if (previous != null) {
+            byVersion.remove(previous);
+        }
+        byVersion.add(entry);
+    }
+
+    private void evictOldestTombstone() {
+        Entry oldest = tombstones.removeFirst();
+        if (byId.get(oldest.id) == oldest) {
+            byId.remove(oldest.id);
+            byVersion.remove(oldest);
+        }
+        horizon = Math.max(horizon, oldest.version);
+    }
+
+    private static class Entry {
+        final int id;
+        final long version;
+        final long created;
+        final Task task;
+        final ChangeEvent tombstone;
+
+        Entry(int id, long version, long created, Task task, ChangeEvent tombstone) {
+            this.id = id;
+            this.version = version;
+            this.created = created;
+            this.task = task;
+            this.tombstone = tombstone;
+        }
+    }
+}
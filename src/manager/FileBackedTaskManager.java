@@ -6,41 +6,61 @@ import task.Subtask;
 import task.Task;
 import task.TypeTask;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.time.LocalDateTime;
-import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Objects;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.CRC32;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 public class FileBackedTaskManager extends InMemoryTaskManager {
     private final File file;
+    private final SnapshotFormat format;
+    private final RecoveryReport recoveryReport;
 
     public FileBackedTaskManager(File file) {
+        this(file, SnapshotFormat.CSV);
+    }
+
+    public FileBackedTaskManager(File file, SnapshotFormat format) {
+        this(file, format, Managers.getDefaultHistory());
+    }
+
+    protected FileBackedTaskManager(File file, SnapshotFormat format, HistoryManager historyManager) {
+        super(historyManager);
         this.file = file;
+        this.format = format;
+        this.recoveryReport = new RecoveryReport(file);
     }
 
     @Override
     public Task addTask(Task task) {
         super.addTask(task);
-        save();
+        saveTask(task);
         return task;
     }
 
     @Override
     public Epic addEpic(Epic epic) {
         super.addEpic(epic);
-        save();
+        saveTask(epic);
         return epic;
     }
 
     @Override
     public Subtask addSubtask(Subtask subtask) {
         super.addSubtask(subtask);
-        save();
+        saveTask(subtask);
         return subtask;
     }
 
@@ -48,7 +68,7 @@ public class FileBackedTaskManager extends InMemoryTaskManager {
     public Task updateTask(Task task) {
         Task result = super.updateTask(task);
         if (result != null) {
-            save();
+            saveTask(result);
         }
         return result;
     }
@@ -57,7 +77,7 @@ public class FileBackedTaskManager extends InMemoryTaskManager {
     public Epic updateEpic(Epic epic) {
         Epic result = super.updateEpic(epic);
         if (result != null) {
-            save();
+            saveEpic(result);
         }
         return result;
     }
@@ -66,7 +86,7 @@ public class FileBackedTaskManager extends InMemoryTaskManager {
     public Subtask updateSubtask(Subtask subtask) {
         Subtask result = super.updateSubtask(subtask);
         if (result != null) {
-            save();
+            saveTask(result);
         }
         return result;
     }
@@ -74,19 +94,19 @@ public class FileBackedTaskManager extends InMemoryTaskManager {
     @Override
     public void deleteTask(int taskId) {
         super.deleteTask(taskId);
-        save();
+        saveRemoval(taskId);
     }
 
     @Override
     public void deleteEpic(int epicId) {
         super.deleteEpic(epicId);
-        save();
+        saveRemoval(epicId);
     }
 
     @Override
     public void deleteSubtask(int subtaskId) {
         super.deleteSubtask(subtaskId);
-        save();
+        saveRemoval(subtaskId);
     }
 
     @Override
@@ -107,25 +127,81 @@ public class FileBackedTaskManager extends InMemoryTaskManager {
         save();
     }
 
-    void save() {
-        try {
-            String header = "id,type,name,status,description,epic,startTime,duration\n";
+    /**
+     * Сохраняет одну добавленную или изменённую задачу. По умолчанию перезаписывает весь файл.
+     */
+    void saveTask(Task task) {
+        save();
+    }
 
-            String content = Stream.of(getTasks(), getEpics(), getSubtasks())
-                    .filter(list -> list != null && !list.isEmpty())
-                    .flatMap(List::stream)
-                    .filter(Objects::nonNull)
-                    .map(this::toString)
-                    .collect(Collectors.joining("\n"));
+    /**
+     * Сохраняет обновлённый эпик вместе с его новым набором подзадач. По умолчанию перезаписывает весь файл.
+     */
+    void saveEpic(Epic epic) {
+        save();
+    }
 
-            Files.writeString(file.toPath(), header + content);
+    /**
+     * Сохраняет удаление задачи по id. По умолчанию перезаписывает весь файл.
+     */
+    void saveRemoval(int id) {
+        save();
+    }
+
+    void save() {
+        try {
+            format.write(file, allEntities());
 
         } catch (IOException e) {
             throw new ManagerSaveException("Ошибка сохранения файла", e);
         }
     }
 
-    private String toString(Task task) {
+    File getFile() {
+        return file;
+    }
+
+    SnapshotFormat getFormat() {
+        return format;
+    }
+
+    /**
+     * Повреждения, найденные при загрузке снимка; пустой отчёт, если менеджер создан не из файла.
+     */
+    public RecoveryReport getRecoveryReport() {
+        return recoveryReport;
+    }
+
+    /**
+     * Пишет CSV-снимок с заголовком MappedCsvSnapshot.HEADER: после каждых BLOCK_RECORDS строк —
+     * строка "#xxxxxxxx" с CRC32 блока.
+     */
+    static void writeCsv(File file, Collection<Task> tasks) throws IOException {
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file.toPath()), 1 << 16)) {
+            out.write(MappedCsvSnapshot.HEADER.getBytes(StandardCharsets.UTF_8));
+            CRC32 crc = new CRC32();
+            int blockSize = 0;
+            for (Task task : tasks) {
+                byte[] line = (toString(task) + "\n").getBytes(StandardCharsets.UTF_8);
+                out.write(line);
+                crc.update(line);
+                if (++blockSize == MappedCsvSnapshot.BLOCK_RECORDS) {
+                    writeChecksum(out, crc);
+                    blockSize = 0;
+                }
+            }
+            if (blockSize > 0) {
+                writeChecksum(out, crc);
+            }
+        }
+    }
+
+    private static void writeChecksum(OutputStream out, CRC32 crc) throws IOException {
+        out.write(String.format("#%08x\n", crc.getValue()).getBytes(StandardCharsets.US_ASCII));
+        crc.reset();
+    }
+
+    static String toString(Task task) {
         String type = TypeTask.valueOf(task.getClass().getSimpleName().toUpperCase()).toString();
         String epicId = (task instanceof Subtask) ? String.valueOf(((Subtask) task).getEpicId()) : "";
 
@@ -137,7 +213,7 @@ public class FileBackedTaskManager extends InMemoryTaskManager {
                 task.getTaskDescription(), epicId, startTimeStr, durationStr);
     }
 
-    private static Task fromString(String value) {
+    static Task fromString(String value) {
         String[] parts = value.split(",");
         int id = Integer.parseInt(parts[0]);
         TypeTask type = TypeTask.valueOf(parts[1]);
@@ -169,45 +245,113 @@ public class FileBackedTaskManager extends InMemoryTaskManager {
     }
 
     public static FileBackedTaskManager loadFromFile(File file) {
-        FileBackedTaskManager manager = new FileBackedTaskManager(file);
+        return loadFromFile(file, SnapshotFormat.CSV);
+    }
 
+    /**
+     * Загружает снимок. Повреждённые участки файла пропускаются, уцелевшие записи
+     * восстанавливаются, а найденные повреждения доступны через getRecoveryReport().
+     */
+    public static FileBackedTaskManager loadFromFile(File file, SnapshotFormat format) {
+        FileBackedTaskManager manager = new FileBackedTaskManager(file, format);
+        Map<Integer, Task> loaded = readSnapshot(file, format, manager.recoveryReport);
+        dropOrphanSubtasks(loaded.values(), manager.recoveryReport);
+        restore(manager, loaded.values());
+        return manager;
+    }
+
+    public static FileBackedTaskManager loadFromFileParallel(File file) {
+        return loadFromFileParallel(file, SnapshotFormat.CSV, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Как loadFromFile, но CSV-снимок разбирается кусками параллельно в пуле.
+     * Бинарный формат не размечен по строкам и читается последовательно.
+     */
+    public static FileBackedTaskManager loadFromFileParallel(File file, SnapshotFormat format, ForkJoinPool pool) {
+        FileBackedTaskManager manager = new FileBackedTaskManager(file, format);
+        Map<Integer, Task> loaded;
         try {
-            String content = Files.readString(file.toPath());
-            String[] lines = content.split("\n");
+            loaded = format == SnapshotFormat.CSV
+                    ? MappedCsvSnapshot.readParallel(file, pool)
+                    : format.read(file, null);
+        } catch (IOException e) {
+            // Повреждённый снимок восстанавливаем последовательно
+            loaded = readSnapshot(file, format, manager.recoveryReport);
+        }
+        dropOrphanSubtasks(loaded.values(), manager.recoveryReport);
+        restore(manager, loaded.values());
+        return manager;
+    }
 
-            if (lines.length <= 1) {
-                return manager;
-            }
+    static Map<Integer, Task> readSnapshot(File file) {
+        return readSnapshot(file, SnapshotFormat.CSV);
+    }
 
-            int maxId = Arrays.stream(lines)
-                    .skip(1)
-                    .filter(line -> !line.isBlank())
-                    .map(FileBackedTaskManager::fromString)
-                    .peek(task -> task.loadToManager(manager))
-                    .mapToInt(Task::getTaskId)
-                    .max()
-                    .orElse(0);
-
-            manager.getSubtasks()
-                    .forEach(subtask -> {
-                        Epic epic = manager.getEpic(subtask.getEpicId());
-                        if (epic != null) {
-                            epic.getSubtasks().add(subtask);
-                        }
-                    });
-
-            manager.getEpics()
-                    .forEach(epic -> {
-                        epic.calculateDuration();
-                        manager.updateEpicStatus(epic);
-                    });
-
-            manager.setIdCounter(maxId + 1);
+    static Map<Integer, Task> readSnapshot(File file, SnapshotFormat format) {
+        return readSnapshot(file, format, new RecoveryReport(file));
+    }
 
+    static Map<Integer, Task> readSnapshot(File file, SnapshotFormat format, RecoveryReport report) {
+        try {
+            return format.read(file, report);
         } catch (IOException e) {
             throw new ManagerSaveException("Ошибка чтения файла", e);
         }
+    }
 
-        return manager;
+    static Map<Integer, Task> readCsv(File file, RecoveryReport report) throws IOException {
+        return MappedCsvSnapshot.read(file, MappedCsvSnapshot.WINDOW_SIZE, report);
+    }
+
+    /**
+     * Убирает подзадачи, чей эпик отсутствует среди загруженных (например, эпик удалён,
+     * а запись подзадачи на диске осталась). Id отброшенных подзадач записываются в report.
+     */
+    static void dropOrphanSubtasks(Collection<Task> loaded, RecoveryReport report) {
+        Set<Integer> epicIds = loaded.stream()
+                .filter(task -> task instanceof Epic)
+                .map(Task::getTaskId)
+                .collect(Collectors.toSet());
+        loaded.removeIf(task -> {
+            if (task instanceof Subtask subtask && !epicIds.contains(subtask.getEpicId())) {
+                report.droppedSubtask(subtask.getTaskId());
+                return true;
+            }
+            return false;
+        });
+    }
+
+    /**
+     * Загружает задачи в менеджер за один проход: подзадачи привязываются к эпикам
+     * по мере появления эпика, агрегаты эпика обновляются при привязке. История не затрагивается.
+     */
+    static void restore(FileBackedTaskManager manager, Collection<Task> loaded) {
+        Map<Integer, Epic> epics = new HashMap<>();
+        Map<Integer, List<Subtask>> waitingForEpic = new HashMap<>();
+        int maxId = 0;
+
+        for (Task task : loaded) {
+            task.loadToManager(manager);
+            maxId = Math.max(maxId, task.getTaskId());
+
+            if (task instanceof Epic epic) {
+                epics.put(epic.getTaskId(), epic);
+                List<Subtask> waiting = waitingForEpic.remove(epic.getTaskId());
+                if (waiting != null) {
+                    waiting.forEach(epic::addSubtask);
+                }
+            } else if (task instanceof Subtask subtask) {
+                Epic epic = epics.get(subtask.getEpicId());
+                if (epic != null) {
+                    epic.addSubtask(subtask);
+                } else {
+                    waitingForEpic.computeIfAbsent(subtask.getEpicId(), id -> new ArrayList<>()).add(subtask);
+                }
+            }
+        }
+
+        epics.values().forEach(manager::updateEpicStatus);
+        manager.setIdCounter(maxId + 1);
     }
-}
\ No newline at end of file
+}
@@ -1,14 +1,34 @@
 package manager;
 
+import task.ImmutableTask;
 import task.Task;
 import java.util.*;
 
+/**
+ * История просмотров на HashMap + двусвязном списке. При заданной ёмкости хранится
+ * не больше capacity последних просмотренных задач: при переполнении вытесняется
+ * самая давняя. Снимок истории строится один раз после изменения и переиспользуется
+ * до следующего add/remove. Задачи хранятся как ImmutableTask, поэтому снимок
+ * строится без копирования элементов и безопасно разделяется между читателями.
+ */
 public class InMemoryHistoryManager implements HistoryManager {
+    public static final int UNBOUNDED = 0;
+
     private final Map<Integer, Node> nodeMap = new HashMap<>();
     private final Node head;
     private final Node tail;
+    private final int capacity;
+    private List<Task> snapshot;
 
     public InMemoryHistoryManager() {
+        this(UNBOUNDED);
+    }
+
+    public InMemoryHistoryManager(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Ёмкость истории не может быть отрицательной");
+        }
+        this.capacity = capacity;
         head = new Node(null);
         tail = new Node(null);
         head.next = tail;
@@ -24,6 +44,10 @@ public class InMemoryHistoryManager implements HistoryManager {
         Task taskCopy = copyTask(task);
         Node newNode = linkLast(taskCopy);
         nodeMap.put(taskCopy.getTaskId(), newNode);
+        if (capacity != UNBOUNDED && nodeMap.size() > capacity) {
+            remove(head.next.task.getTaskId());
+        }
+        snapshot = null;
     }
 
     @Override
@@ -31,12 +55,20 @@ public class InMemoryHistoryManager implements HistoryManager {
         Node node = nodeMap.remove(id);
         if (node != null) {
             removeNode(node);
+            snapshot = null;
         }
     }
 
     @Override
     public List<Task> getHistory() {
-        return Collections.unmodifiableList(getTasks());
+        if (snapshot == null) {
+            snapshot = Collections.unmodifiableList(getTasks());
+        }
+        return snapshot;
+    }
+
+    public int getCapacity() {
+        return capacity;
     }
 
     private Node linkLast(Task task) {
@@ -52,24 +84,17 @@ public class InMemoryHistoryManager implements HistoryManager {
     }
 
     private List<Task> getTasks() {
-        List<Task> result = new ArrayList<>();
+        List<Task> result = new ArrayList<>(nodeMap.size());
         Node current = head.next;
         while (current != tail) {
-            result.add(copyTask(current.task));
+            result.add(current.task);
             current = current.next;
         }
         return result;
     }
 
     private Task copyTask(Task original) {
-        return new Task(
-                original.getTaskName(),
-                original.getTaskDescription(),
-                original.getTaskId(),
-                original.getStatus(),
-                original.getStartTime(),
-                original.getDuration()
-        );
+        return new ImmutableTask(original);
     }
 
     private static class Node {
@@ -1,89 +1,130 @@
 package manager;
 
+import exception.EpicNotFoundException;
+import exception.TimeConflictException;
 import task.Epic;
+import task.ImmutableEpic;
 import task.Subtask;
 import task.Task;
+import task.TypeTask;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
 public class InMemoryTaskManager implements TaskManager {
 
-    private int idCounter = 1;
+    private static final int NO_TASK_ID = Integer.MIN_VALUE;
 
-    private final HashMap<Integer, Task> tasks = new HashMap<>();
-    private final HashMap<Integer, Epic> epics = new HashMap<>();
-    private final HashMap<Integer, Subtask> subtasks = new HashMap<>();
-    private final HistoryManager historyManager = Managers.getDefaultHistory();
+    /**
+     * Границы интервалов включительные, поэтому задачи "встык" пересекаются —
+     * свободное окно начинается через минуту после конца предыдущей задачи.
+     */
+    static final Duration SLOT_GAP = Duration.ofMinutes(1);
 
-    private final Set<Task> prioritizedTasks = new TreeSet<>(
+    private final AtomicInteger idCounter = new AtomicInteger(1);
+
+    private final TreeMap<Integer, Task> tasks = new TreeMap<>();
+    private final TreeMap<Integer, Epic> epics = new TreeMap<>();
+    private final TreeMap<Integer, Subtask> subtasks = new TreeMap<>();
+    private final HistoryManager historyManager;
+    private final ChangeFeed changeFeed = Managers.getDefaultChangeFeed();
+    private final EntityVersions versions = new EntityVersions(
+            Integer.getInteger("kanban.tombstoneCapacity", EntityVersions.DEFAULT_TOMBSTONE_CAPACITY));
+    private final Map<TypeTask, Long> collectionVersions = new EnumMap<>(TypeTask.class);
+
+    private final NavigableSet<Task> prioritizedTasks = new TreeSet<>(
             Comparator.comparing(Task::getStartTime,
                     Comparator.nullsLast(Comparator.naturalOrder()))
     );
+    private final TaskIntervalIndex intervalIndex = new TaskIntervalIndex();
+
+    private final TaskKeyIndex<Status, Task> tasksByStatus = new TaskKeyIndex<>(Task::getStatus);
+    private final TaskKeyIndex<Status, Epic> epicsByStatus = new TaskKeyIndex<>(Task::getStatus);
+    private final TaskKeyIndex<Status, Subtask> subtasksByStatus = new TaskKeyIndex<>(Task::getStatus);
+    private final TaskKeyIndex<Integer, Subtask> subtasksByEpic = new TaskKeyIndex<>(Subtask::getEpicId);
+
+    public InMemoryTaskManager() {
+        this(Managers.getDefaultHistory());
+    }
+
+    protected InMemoryTaskManager(HistoryManager historyManager) {
+        this.historyManager = historyManager;
+    }
 
     @Override
     public int generateId() {
-        return idCounter++;
+        return idCounter.getAndIncrement();
     }
 
     public void loadTask(Task task) {
         tasks.put(task.getTaskId(), task);
+        tasksByStatus.put(task);
+        addPrioritized(task);
+        versions.load(task);
     }
 
     public void loadEpic(Epic epic) {
         epics.put(epic.getTaskId(), epic);
+        epicsByStatus.put(epic);
+        versions.load(epic);
     }
 
     public void loadSubtask(Subtask subtask) {
-        subtasks.put(subtask.getTaskId(), subtask);
+        putSubtask(subtask);
+        addPrioritized(subtask);
+        versions.load(subtask);
     }
 
     public void setIdCounter(int id) {
-        this.idCounter = id;
+        this.idCounter.set(id);
     }
 
-    private boolean isTasksOverlap(Task task1, Task task2) {
-        if (task1 == task2) {
-            return false;
-        }
-
-        LocalDateTime start1 = task1.getStartTime();
-        LocalDateTime end1 = task1.getEndTime();
-        LocalDateTime start2 = task2.getStartTime();
-        LocalDateTime end2 = task2.getEndTime();
-
-        if (start1 == null || end1 == null || start2 == null || end2 == null) {
+    private boolean isTaskOverlappingWithAny(Task taskToCheck) {
+        if (taskToCheck.getStartTime() == null || taskToCheck.getEndTime() == null) {
             return false;
         }
-
-        return !start1.isAfter(end2) && !end1.isBefore(start2);
+        return intervalIndex.overlaps(taskToCheck.getStartTime(), taskToCheck.getEndTime(), NO_TASK_ID);
     }
 
-    private boolean isTaskOverlappingWithAny(Task taskToCheck) {
+    private boolean isTaskOverlappingWithAnyExcept(Task taskToCheck, Task taskToExclude) {
         if (taskToCheck.getStartTime() == null || taskToCheck.getEndTime() == null) {
             return false;
         }
+        return intervalIndex.overlaps(taskToCheck.getStartTime(), taskToCheck.getEndTime(),
+                taskToExclude.getTaskId());
+    }
 
-        List<Task> tasksWithTime = prioritizedTasks.stream()
-                .filter(task -> task.getStartTime() != null && task.getEndTime() != null)
-                .toList();
+    private void addPrioritized(Task task) {
+        if (task.getStartTime() != null) {
+            prioritizedTasks.add(task);
+            intervalIndex.add(task);
+        }
+    }
 
-        return tasksWithTime.stream()
-                .anyMatch(existingTask -> isTasksOverlap(taskToCheck, existingTask));
+    private void removePrioritized(Task task) {
+        prioritizedTasks.remove(task);
+        intervalIndex.remove(task.getTaskId());
     }
 
-    private boolean isTaskOverlappingWithAnyExcept(Task taskToCheck, Task taskToExclude) {
-        if (taskToCheck.getStartTime() == null || taskToCheck.getEndTime() == null) {
-            return false;
-        }
+    private void putSubtask(Subtask subtask) {
+        subtasks.put(subtask.getTaskId(), subtask);
+        subtasksByStatus.put(subtask);
+        subtasksByEpic.put(subtask);
+    }
 
-        List<Task> tasksWithTime = prioritizedTasks.stream()
-                .filter(task -> task.getStartTime() != null && task.getEndTime() != null)
-                .filter(task -> !task.equals(taskToExclude))
-                .toList();
+    private Subtask removeSubtask(int subtaskId) {
+        subtasksByStatus.remove(subtaskId);
+        subtasksByEpic.remove(subtaskId);
+        return subtasks.remove(subtaskId);
+    }
 
-        return tasksWithTime.stream()
-                .anyMatch(existingTask -> isTasksOverlap(taskToCheck, existingTask));
+    private void clearSubtaskMap() {
+        subtasks.clear();
+        subtasksByStatus.clear();
+        subtasksByEpic.clear();
     }
 
     /* Add section */
@@ -95,16 +136,16 @@ public class InMemoryTaskManager implements TaskManager {
         }
 
         if (isTaskOverlappingWithAny(task)) {
-            throw new IllegalArgumentException("Задача пересекается по времени с существующей задачей");
+            throw new TimeConflictException("Задача пересекается по времени с существующей задачей");
         }
 
         int newId = generateId();
         task.setTaskId(newId);
         tasks.put(newId, task);
+        tasksByStatus.put(task);
 
-        if (task.getStartTime() != null) {
-            prioritizedTasks.add(task);
-        }
+        addPrioritized(task);
+        changed(ChangeEvent.Type.ADDED, task);
         return task;
     }
 
@@ -116,6 +157,8 @@ public class InMemoryTaskManager implements TaskManager {
         int newId = generateId();
         epic.setTaskId(newId);
         epics.put(newId, epic);
+        epicsByStatus.put(epic);
+        changed(ChangeEvent.Type.ADDED, epic);
         return epic;
     }
 
@@ -126,29 +169,57 @@ public class InMemoryTaskManager implements TaskManager {
         }
 
         if (isTaskOverlappingWithAny(subtask)) {
-            throw new IllegalArgumentException("Подзадача пересекается по времени с существующей задачей");
+            throw new TimeConflictException("Подзадача пересекается по времени с существующей задачей");
         }
 
         if (!epics.containsKey(subtask.getEpicId())) {
-            throw new IllegalArgumentException("Эпик с ID " + subtask.getEpicId() + " не существует");
+            throw new EpicNotFoundException(subtask.getEpicId());
         }
 
         int newId = generateId();
         subtask.setTaskId(newId);
-        subtasks.put(newId, subtask);
+        putSubtask(subtask);
 
         Epic epic = epics.get(subtask.getEpicId());
         if (epic != null) {
-            epic.getSubtasks().add(subtask);
+            epic.addSubtask(subtask);
             updateEpicStatus(epic);
         }
 
-        if (subtask.getStartTime() != null) {
-            prioritizedTasks.add(subtask);
-        }
+        addPrioritized(subtask);
+        changed(ChangeEvent.Type.ADDED, subtask);
+        changed(ChangeEvent.Type.UPDATED, epic);
         return subtask;
     }
 
+    /**
+     * Задача без startTime ставится в первое свободное окно [from, to], задача со временем
+     * добавляется как обычно. Если окна нет — IllegalArgumentException.
+     */
+    @Override
+    public Task addTask(Task task, LocalDateTime from, LocalDateTime to) {
+        if (task != null && task.getStartTime() == null) {
+            placeInFirstSlot(task, from, to);
+        }
+        return addTask(task);
+    }
+
+    @Override
+    public Subtask addSubtask(Subtask subtask, LocalDateTime from, LocalDateTime to) {
+        if (subtask != null && subtask.getStartTime() == null) {
+            placeInFirstSlot(subtask, from, to);
+        }
+        return addSubtask(subtask);
+    }
+
+    private void placeInFirstSlot(Task task, LocalDateTime from, LocalDateTime to) {
+        List<TimeSlot> slots = findFreeSlots(task.getDuration(), from, to, 1);
+        if (slots.isEmpty()) {
+            throw new TimeConflictException("Нет свободного окна для задачи в промежутке " + from + " — " + to);
+        }
+        task.setStartTime(slots.getFirst().getStart());
+    }
+
     /* Update section */
 
     @Override
@@ -160,15 +231,15 @@ public class InMemoryTaskManager implements TaskManager {
         Task oldTask = tasks.get(task.getTaskId());
 
         if (isTaskOverlappingWithAnyExcept(task, oldTask)) {
-            throw new IllegalArgumentException("Обновленная задача пересекается по времени с другой задачей");
+            throw new TimeConflictException("Обновленная задача пересекается по времени с другой задачей");
         }
 
-        prioritizedTasks.remove(oldTask);
+        removePrioritized(oldTask);
         tasks.put(task.getTaskId(), task);
+        tasksByStatus.put(task);
 
-        if (task.getStartTime() != null) {
-            prioritizedTasks.add(task);
-        }
+        addPrioritized(task);
+        changed(ChangeEvent.Type.UPDATED, task);
         return task;
     }
 
@@ -177,24 +248,34 @@ public class InMemoryTaskManager implements TaskManager {
         if (epic == null || !epics.containsKey(epic.getTaskId())) {
             return null;
         }
+        if (epic instanceof ImmutableEpic) {
+            // Снимок без подзадач: принять его значило бы отцепить все подзадачи эпика
+            throw new IllegalArgumentException("Снимок эпика только для чтения, передайте новый Epic");
+        }
 
         int epicId = epic.getTaskId();
         Epic existing = epics.get(epicId);
 
+        Map<Integer, Subtask> replaced = new HashMap<>();
         existing.getSubtasks().forEach(oldSub -> {
-            prioritizedTasks.remove(oldSub);
-            subtasks.remove(oldSub.getTaskId());
+            removePrioritized(oldSub);
+            removeSubtask(oldSub.getTaskId());
+            replaced.put(oldSub.getTaskId(), oldSub);
         });
 
         epics.put(epicId, epic);
 
         epic.getSubtasks().forEach(newSub -> {
-            subtasks.put(newSub.getTaskId(), newSub);
-            Optional.ofNullable(newSub.getStartTime())
-                    .ifPresent(startTime -> prioritizedTasks.add(newSub));
+            boolean existed = replaced.remove(newSub.getTaskId()) != null;
+            putSubtask(newSub);
+            addPrioritized(newSub);
+            changed(existed ? ChangeEvent.Type.UPDATED : ChangeEvent.Type.ADDED, newSub);
         });
+        replaced.values().forEach(oldSub -> changed(ChangeEvent.Type.DELETED, oldSub));
 
+        epic.recalculate();
         updateEpicStatus(epic);
+        changed(ChangeEvent.Type.UPDATED, epic);
         return epic;
     }
 
@@ -205,51 +286,34 @@ public class InMemoryTaskManager implements TaskManager {
         }
 
         if (!epics.containsKey(subtask.getEpicId())) {
-            throw new IllegalArgumentException("Эпик с ID " + subtask.getEpicId() + " не существует");
+            throw new EpicNotFoundException(subtask.getEpicId());
         }
 
         int subtaskId = subtask.getTaskId();
         Subtask old = subtasks.get(subtaskId);
 
-        prioritizedTasks.remove(old);
+        removePrioritized(old);
 
-        subtasks.put(subtaskId, subtask);
+        putSubtask(subtask);
 
         Epic epic = epics.get(subtask.getEpicId());
         if (epic != null) {
-            epic.getSubtasks().remove(old);
-            epic.getSubtasks().add(subtask);
+            epic.removeSubtask(old);
+            epic.addSubtask(subtask);
             updateEpicStatus(epic);
         }
 
-        if (subtask.getStartTime() != null) {
-            prioritizedTasks.add(subtask);
-        }
+        addPrioritized(subtask);
+        changed(ChangeEvent.Type.UPDATED, subtask);
+        changed(ChangeEvent.Type.UPDATED, epic);
         return subtask;
     }
 
     @Override
     public void updateEpicStatus(Epic epic) {
-        ArrayList<Subtask> list = epic.getSubtasks();
-        if (list.isEmpty()) {
-            epic.setStatus(Status.NEW);
-            return;
-        }
-
-        long countNew = list.stream()
-                .filter(subtask -> subtask.getStatus().equals(Status.NEW))
-                .count();
-
-        long countDone = list.stream()
-                .filter(subtask -> subtask.getStatus().equals(Status.DONE))
-                .count();
-
-        if (countNew == list.size()) {
-            epic.setStatus(Status.NEW);
-        } else if (countDone == list.size()) {
-            epic.setStatus(Status.DONE);
-        } else {
-            epic.setStatus(Status.IN_PROGRESS);
+        epic.setStatus(epic.calculateStatus());
+        if (epics.get(epic.getTaskId()) == epic) {
+            epicsByStatus.put(epic);
         }
     }
 
@@ -282,6 +346,17 @@ public class InMemoryTaskManager implements TaskManager {
         return subtask;
     }
 
+    /**
+     * Все сущности без копий и без учёта в истории: задачи, затем эпики, затем подзадачи.
+     */
+    List<Task> allEntities() {
+        List<Task> all = new ArrayList<>(tasks.size() + epics.size() + subtasks.size());
+        all.addAll(tasks.values());
+        all.addAll(epics.values());
+        all.addAll(subtasks.values());
+        return all;
+    }
+
     @Override
     public ArrayList<Task> getTasks() {
         return new ArrayList<>(tasks.values());
@@ -302,54 +377,162 @@ public class InMemoryTaskManager implements TaskManager {
         return new ArrayList<>(epic.getSubtasks());
     }
 
+    /**
+     * Эпик по id без записи в историю — для внутренних нужд наследников.
+     */
+    Epic findEpic(int epicId) {
+        return epics.get(epicId);
+    }
+
+    /**
+     * Все задачи, эпики и подзадачи с id в диапазоне [fromId, toId], без записи в историю.
+     */
+    List<Task> getRange(int fromId, int toId) {
+        List<Task> result = new ArrayList<>();
+        result.addAll(tasks.subMap(fromId, true, toId, true).values());
+        result.addAll(epics.subMap(fromId, true, toId, true).values());
+        result.addAll(subtasks.subMap(fromId, true, toId, true).values());
+        return result;
+    }
+
+    /* Filter section */
+
+    @Override
+    public List<Task> getTasksByStatus(Status status) {
+        return tasksByStatus.list(status);
+    }
+
+    @Override
+    public List<Epic> getEpicsByStatus(Status status) {
+        return epicsByStatus.list(status);
+    }
+
+    @Override
+    public List<Subtask> getSubtasksByStatus(Status status) {
+        return subtasksByStatus.list(status);
+    }
+
+    @Override
+    public List<Subtask> getSubtasksByEpic(int epicId) {
+        return subtasksByEpic.list(epicId);
+    }
+
+    /**
+     * Подзадачи эпика с заданным статусом: просматривается меньшая из двух групп индекса.
+     */
+    @Override
+    public List<Subtask> getSubtasksByEpic(int epicId, Status status) {
+        if (subtasksByEpic.count(epicId) <= subtasksByStatus.count(status)) {
+            return subtasksByEpic.get(epicId).stream()
+                    .filter(subtask -> subtask.getStatus() == status)
+                    .collect(Collectors.toCollection(ArrayList::new));
+        }
+        return subtasksByStatus.get(status).stream()
+                .filter(subtask -> subtask.getEpicId() == epicId)
+                .collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    /* Pagination section */
+
+    @Override
+    public List<Task> getTasks(int offset, int limit) {
+        return page(tasks.values(), offset, limit);
+    }
+
+    @Override
+    public List<Epic> getEpics(int offset, int limit) {
+        return page(epics.values(), offset, limit);
+    }
+
+    @Override
+    public List<Subtask> getSubtasks(int offset, int limit) {
+        return page(subtasks.values(), offset, limit);
+    }
+
+    @Override
+    public List<Task> getTasksAfter(int afterId, int limit) {
+        return page(tasks.tailMap(afterId, false).values(), 0, limit);
+    }
+
+    @Override
+    public List<Epic> getEpicsAfter(int afterId, int limit) {
+        return page(epics.tailMap(afterId, false).values(), 0, limit);
+    }
+
+    @Override
+    public List<Subtask> getSubtasksAfter(int afterId, int limit) {
+        return page(subtasks.tailMap(afterId, false).values(), 0, limit);
+    }
+
+    private static <T> List<T> page(Collection<T> source, int offset, int limit) {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("offset и limit не могут быть отрицательными");
+        }
+        return source.stream()
+                .skip(offset)
+                .limit(limit)
+                .collect(Collectors.toCollection(ArrayList::new));
+    }
+
     /* Delete section */
 
     @Override
     public void clearTasks() {
         tasks.values()
                 .forEach(task -> {
-                    prioritizedTasks.remove(task);
+                    removePrioritized(task);
                     historyManager.remove(task.getTaskId());
+                    changed(ChangeEvent.Type.DELETED, task);
                 });
         tasks.clear();
+        tasksByStatus.clear();
     }
 
     @Override
     public void clearEpics() {
         subtasks.values()
                 .forEach(sub -> {
-                    prioritizedTasks.remove(sub);
+                    removePrioritized(sub);
                     historyManager.remove(sub.getTaskId());
+                    changed(ChangeEvent.Type.DELETED, sub);
                 });
-        subtasks.clear();
+        clearSubtaskMap();
 
         epics.values()
-                .forEach(epic -> historyManager.remove(epic.getTaskId()));
+                .forEach(epic -> {
+                    historyManager.remove(epic.getTaskId());
+                    changed(ChangeEvent.Type.DELETED, epic);
+                });
         epics.clear();
+        epicsByStatus.clear();
     }
 
     @Override
     public void clearSubtasks() {
         subtasks.values()
                 .forEach(sub -> {
-                    prioritizedTasks.remove(sub);
+                    removePrioritized(sub);
                     historyManager.remove(sub.getTaskId());
+                    changed(ChangeEvent.Type.DELETED, sub);
                 });
-        subtasks.clear();
+        clearSubtaskMap();
 
         epics.values()
                 .forEach(epic -> {
-                    epic.getSubtasks().clear();
+                    epic.clearSubtasks();
                     updateEpicStatus(epic);
+                    changed(ChangeEvent.Type.UPDATED, epic);
                 });
     }
 
     @Override
     public void deleteTask(int taskId) {
         Task removedTask = tasks.remove(taskId);
+        tasksByStatus.remove(taskId);
         if (removedTask != null) {
-            prioritizedTasks.remove(removedTask);
+            removePrioritized(removedTask);
             historyManager.remove(taskId);
+            changed(ChangeEvent.Type.DELETED, removedTask);
         }
     }
 
@@ -359,29 +542,85 @@ public class InMemoryTaskManager implements TaskManager {
         if (epic != null) {
             epic.getSubtasks()
                     .forEach(sub -> {
-                        prioritizedTasks.remove(sub);
-                        subtasks.remove(sub.getTaskId());
+                        removePrioritized(sub);
+                        removeSubtask(sub.getTaskId());
                         historyManager.remove(sub.getTaskId());
+                        changed(ChangeEvent.Type.DELETED, sub);
                     });
             historyManager.remove(epicId);
             epics.remove(epicId);
+            epicsByStatus.remove(epicId);
+            changed(ChangeEvent.Type.DELETED, epic);
         }
     }
 
     @Override
     public void deleteSubtask(int subtaskId) {
-        Subtask sub = subtasks.remove(subtaskId);
+        Subtask sub = removeSubtask(subtaskId);
         if (sub != null) {
-            prioritizedTasks.remove(sub);
+            removePrioritized(sub);
+            changed(ChangeEvent.Type.DELETED, sub);
             Epic epic = epics.get(sub.getEpicId());
             if (epic != null) {
-                epic.getSubtasks().remove(sub);
+                epic.removeSubtask(sub);
                 updateEpicStatus(epic);
+                changed(ChangeEvent.Type.UPDATED, epic);
             }
         }
         historyManager.remove(subtaskId);
     }
 
+    /* Change feed */
+
+    @Override
+    public ChangeFeed getChangeFeed() {
+        return changeFeed;
+    }
+
+    /**
+     * Изменения после версии since (-1 — полный снимок всех сущностей). Возвращает null, если
+     * нужные надгробия уже вытеснены или since больше текущей версии: клиенту нужна полная
+     * синхронизация.
+     */
+    @Override
+    public ChangeSet getChangesSince(long since) {
+        if (since < -1) {
+            throw new IllegalArgumentException("Версия не может быть меньше -1");
+        }
+        long version = changeFeed.getVersion();
+        if (since > version || since >= 0 && since < versions.getHorizon()) {
+            return null;
+        }
+        return new ChangeSet(changeFeed.token(version), version, versions.since(since));
+    }
+
+    @Override
+    public ChangeSet getChangesSince(String token) {
+        if (token == null) {
+            return getChangesSince(-1);
+        }
+        long since = changeFeed.versionOf(token);
+        return since == ChangeFeed.OTHER_EPOCH ? null : getChangesSince(since);
+    }
+
+    @Override
+    public long getEntityVersion(int id) {
+        return versions.versionOf(id);
+    }
+
+    @Override
+    public long getCollectionVersion(TypeTask type) {
+        return collectionVersions.getOrDefault(type, 0L);
+    }
+
+    private void changed(ChangeEvent.Type type, Task task) {
+        if (task != null) {
+            ChangeEvent event = changeFeed.append(type, task);
+            versions.record(event, task);
+            collectionVersions.put(event.getEntity(), event.getVersion());
+        }
+    }
+
     /* History */
 
     @Override
@@ -393,4 +632,62 @@ public class InMemoryTaskManager implements TaskManager {
     public List<Task> getPrioritizedTasks() {
         return new ArrayList<>(prioritizedTasks);
     }
+
+    @Override
+    public List<Task> getPrioritizedTasks(int offset, int limit) {
+        return page(prioritizedTasks, offset, limit);
+    }
+
+    @Override
+    public List<Task> getPrioritizedTasksAfter(LocalDateTime afterStartTime, int limit) {
+        Task probe = new Task(null, null, 0, null, afterStartTime, 0);
+        return page(prioritizedTasks.tailSet(probe, false), 0, limit);
+    }
+
+    /* Scheduling section */
+
+    /**
+     * Первые limit свободных окон в [from, to], куда помещается задача длительностью duration минут.
+     * Занятые интервалы обходятся по индексу в порядке начала, начиная с from, и обход
+     * останавливается, как только найдено limit окон.
+     */
+    @Override
+    public List<TimeSlot> findFreeSlots(long duration, LocalDateTime from, LocalDateTime to, int limit) {
+        if (from == null || to == null || from.isAfter(to)) {
+            throw new IllegalArgumentException("Некорректное окно времени: " + from + " — " + to);
+        }
+        if (duration < 0 || limit <= 0) {
+            throw new IllegalArgumentException("Длительность не может быть отрицательной, limit должен быть положительным");
+        }
+
+        List<TimeSlot> slots = new ArrayList<>();
+        LocalDateTime[] cursor = {from};
+        intervalIndex.forEachOverlapping(from, to, (task, start, end) -> {
+            TimeSlot gap = new TimeSlot(cursor[0], start.minus(SLOT_GAP));
+            if (gap.fits(duration)) {
+                slots.add(gap);
+            }
+            LocalDateTime next = end.plus(SLOT_GAP);
+            if (next.isAfter(cursor[0])) {
+                cursor[0] = next;
+            }
+            return slots.size() < limit;
+        });
+
+        if (slots.size() < limit) {
+            TimeSlot tail = new TimeSlot(cursor[0], to);
+            if (tail.fits(duration)) {
+                slots.add(tail);
+            }
+        }
+        return slots;
+    }
+
+    @Override
+    public List<Task> getPrioritizedTasksBetween(LocalDateTime from, LocalDateTime to) {
+        if (from == null || to == null || from.isAfter(to)) {
+            throw new IllegalArgumentException("Некорректное окно времени: " + from + " — " + to);
+        }
+        return intervalIndex.overlapping(from, to);
+    }
 }
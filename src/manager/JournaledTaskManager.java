@@ -0,0 +1,269 @@
+package manager;
+
+import exception.ManagerSaveException;
+import task.Epic;
+import task.Subtask;
+import task.Task;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+/**
+ * Менеджер с журналом изменений: каждая мутация дописывает одну запись в журнал,
+ * а полный снимок (CSV, как у FileBackedTaskManager) пишется только при компактизации.
+ * Записи журнала идемпотентны, поэтому повторное применение журнала к снимку безопасно.
+ * <p>
+ * Формат записи: {@code xxxxxxxx,PUT,<csv>} или {@code xxxxxxxx,DEL,<id>}, где xxxxxxxx — CRC32
+ * остатка строки. Первая запись, не прошедшая проверку (обычно оборванная при сбое последняя),
+ * считается концом журнала: она и всё после неё отбрасываются и попадают в getJournalRecoveryReport().
+ * Записей без контрольной суммы журнал не принимает.
+ * <p>
+ * Обновление эпика тоже журналируется, а не перезаписывает снимок: PUT эпика, PUT каждой
+ * его подзадачи и DEL подзадач, которые эпик при обновлении потерял.
+ */
+public class JournaledTaskManager extends FileBackedTaskManager {
+    public static final int DEFAULT_COMPACTION_THRESHOLD = 1000;
+
+    private static final String PUT = "PUT";
+    private static final String DEL = "DEL";
+
+    private final File journal;
+    private final int compactionThreshold;
+    private final boolean sync;
+    private final RecoveryReport journalReport;
+    private int journalSize;
+    private List<Integer> subtasksBeforeUpdate = List.of();
+
+    public JournaledTaskManager(File snapshot, File journal) {
+        this(snapshot, journal, DEFAULT_COMPACTION_THRESHOLD);
+    }
+
+    public JournaledTaskManager(File snapshot, File journal, int compactionThreshold) {
+        this(snapshot, journal, compactionThreshold, false);
+    }
+
+    /**
+     * @param sync сбрасывать ли каждую запись на диск (fsync) перед возвратом из мутации
+     */
+    public JournaledTaskManager(File snapshot, File journal, int compactionThreshold, boolean sync) {
+        super(snapshot);
+        if (compactionThreshold <= 0) {
+            throw new IllegalArgumentException("Порог компактизации должен быть положительным");
+        }
+        this.journal = journal;
+        this.compactionThreshold = compactionThreshold;
+        this.sync = sync;
+        this.journalReport = new RecoveryReport(journal);
+    }
+
+    @Override
+    void saveTask(Task task) {
+        append(PUT + "," + toString(task));
+    }
+
+    @Override
+    void saveRemoval(int id) {
+        append(DEL + "," + id);
+    }
+
+    /**
+     * Запоминает подзадачи эпика до обновления, чтобы saveEpic записал удаление тех, что он потеряет.
+     */
+    @Override
+    public Epic updateEpic(Epic epic) {
+        Epic existing = epic == null ? null : findEpic(epic.getTaskId());
+        subtasksBeforeUpdate = existing == null
+                ? List.of()
+                : existing.getSubtasks().stream().map(Task::getTaskId).toList();
+        try {
+            return super.updateEpic(epic);
+        } finally {
+            subtasksBeforeUpdate = List.of();
+        }
+    }
+
+    @Override
+    void saveEpic(Epic epic) {
+        append(PUT + "," + toString(epic));
+        Set<Integer> kept = new HashSet<>();
+        for (Subtask subtask : epic.getSubtasks()) {
+            kept.add(subtask.getTaskId());
+            append(PUT + "," + toString(subtask));
+        }
+        for (int id : subtasksBeforeUpdate) {
+            if (!kept.contains(id)) {
+                append(DEL + "," + id);
+            }
+        }
+    }
+
+    /**
+     * Пишет полный снимок и очищает журнал.
+     */
+    @Override
+    void save() {
+        super.save();
+        try {
+            Files.writeString(journal.toPath(), "");
+        } catch (IOException e) {
+            throw new ManagerSaveException("Ошибка очистки журнала", e);
+        }
+        journalSize = 0;
+    }
+
+    public void compact() {
+        save();
+    }
+
+    int getJournalSize() {
+        return journalSize;
+    }
+
+    /**
+     * Записи журнала, отброшенные при загрузке; пустой отчёт, если журнал прочитан целиком.
+     */
+    public RecoveryReport getJournalRecoveryReport() {
+        return journalReport;
+    }
+
+    private void append(String record) {
+        byte[] line = (checksum(record) + "," + record + "\n").getBytes(StandardCharsets.UTF_8);
+        try (FileChannel channel = FileChannel.open(journal.toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer buffer = ByteBuffer.wrap(line);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            if (sync) {
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            throw new ManagerSaveException("Ошибка записи в журнал", e);
+        }
+
+        journalSize++;
+        if (journalSize >= compactionThreshold) {
+            save();
+        }
+    }
+
+    public static JournaledTaskManager loadFromFile(File snapshot, File journal) {
+        return loadFromFile(snapshot, journal, DEFAULT_COMPACTION_THRESHOLD);
+    }
+
+    public static JournaledTaskManager loadFromFile(File snapshot, File journal, int compactionThreshold) {
+        return loadFromFile(snapshot, journal, compactionThreshold, false);
+    }
+
+    public static JournaledTaskManager loadFromFile(File snapshot, File journal, int compactionThreshold,
+                                                    boolean sync) {
+        JournaledTaskManager manager = new JournaledTaskManager(snapshot, journal, compactionThreshold, sync);
+
+        Map<Integer, Task> loaded = snapshot.exists() && snapshot.length() > 0
+                ? readSnapshot(snapshot, SnapshotFormat.CSV, manager.getRecoveryReport())
+                : new LinkedHashMap<>();
+
+        if (journal.exists()) {
+            try {
+                manager.journalSize = replayJournal(journal, loaded, manager.journalReport);
+            } catch (IOException e) {
+                throw new ManagerSaveException("Ошибка чтения журнала", e);
+            }
+        }
+
+        dropOrphanSubtasks(loaded.values(), manager.getRecoveryReport());
+
+        restore(manager, loaded.values());
+        return manager;
+    }
+
+    /**
+     * Применяет записи журнала по порядку до первой повреждённой. Хвост начиная с неё
+     * отрезается от файла, чтобы следующие записи дописывались после целой части журнала.
+     *
+     * @return число применённых записей
+     */
+    private static int replayJournal(File journal, Map<Integer, Task> loaded, RecoveryReport report)
+            throws IOException {
+        byte[] bytes = Files.readAllBytes(journal.toPath());
+        int applied = 0;
+        int start = 0;
+        while (start < bytes.length) {
+            int newline = indexOf(bytes, (byte) '\n', start);
+            int end = newline < 0 ? bytes.length : newline + 1;
+            String line = new String(bytes, start, (newline < 0 ? bytes.length : newline) - start,
+                    StandardCharsets.UTF_8);
+            if (!line.isBlank()) {
+                String reason = newline < 0 ? "оборванная запись журнала" : replay(loaded, line);
+                if (reason != null) {
+                    report.damaged(start, bytes.length, reason);
+                    try (FileChannel channel = FileChannel.open(journal.toPath(), StandardOpenOption.WRITE)) {
+                        channel.truncate(start);
+                    }
+                    break;
+                }
+                applied++;
+            }
+            start = end;
+        }
+        return applied;
+    }
+
+    /**
+     * Применяет одну запись журнала.
+     *
+     * @return причина отказа, если запись повреждена; null, если запись применена
+     */
+    private static String replay(Map<Integer, Task> loaded, String line) {
+        int crcSeparator = line.indexOf(',');
+        if (crcSeparator < 0 || !line.substring(0, crcSeparator).equals(checksum(line.substring(crcSeparator + 1)))) {
+            return "неверная контрольная сумма записи журнала";
+        }
+        String record = line.substring(crcSeparator + 1);
+
+        int separator = record.indexOf(',');
+        String operation = separator < 0 ? record : record.substring(0, separator);
+        String value = record.substring(separator + 1);
+        try {
+            switch (operation) {
+                case PUT:
+                    Task task = fromString(value);
+                    loaded.put(task.getTaskId(), task);
+                    return null;
+                case DEL:
+                    loaded.remove(Integer.parseInt(value));
+                    return null;
+                default:
+                    return "неизвестная запись журнала";
+            }
+        } catch (RuntimeException e) {
+            return "нечитаемая запись журнала";
+        }
+    }
+
+    private static String checksum(String record) {
+        CRC32 crc = new CRC32();
+        crc.update(record.getBytes(StandardCharsets.UTF_8));
+        return String.format("%08x", crc.getValue());
+    }
+
+    private static int indexOf(byte[] bytes, byte value, int from) {
+        for (int i = from; i < bytes.length; i++) {
+            if (bytes[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,328 @@
+package manager;
+
+import task.Epic;
+import task.ImmutableEpic;
+import task.Subtask;
+import task.Task;
+import task.TypeTask;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+import static manager.Snapshots.copy;
+import static manager.Snapshots.copyAll;
+
+/**
+ * Потокобезопасная обёртка над InMemoryTaskManager (или его наследником) для многопоточного
+ * HTTP-сервера. Чтения выполняются параллельно под read-lock, мутации — под write-lock, поэтому
+ * подзадача и статус её эпика всегда меняются атомарно. История должна быть защищена отдельным
+ * монитором (SynchronizedHistoryManager): просмотр задачи не блокирует остальных читателей.
+ * <p>
+ * Чтения возвращают копии сущностей, снятые под read-lock: обработчик сериализует ответ уже
+ * после снятия блокировки, а писатели меняют хранимые объекты (статус и сроки эпика) на месте.
+ * Эпики отдаются неизменяемыми снимками ImmutableEpic без подзадач, поэтому чтение эпика
+ * не зависит от числа его подзадач; подзадачи копируются только в getEpicSubtasks и им подобных.
+ * <p>
+ * Блокировка одна на весь менеджер, без разбиения по эпикам: любая мутация задачи со временем
+ * меняет общие для всех эпиков приоритетный список и индекс интервалов, а также ленту изменений
+ * и версии коллекций, так что писатели с раздельными блокировками всё равно выстроились бы
+ * в очередь на этих структурах.
+ */
+public class LockingTaskManager implements TaskManager {
+    protected final ReadWriteLock lock;
+    private final InMemoryTaskManager delegate;
+
+    public LockingTaskManager(InMemoryTaskManager delegate) {
+        this(delegate, new ReentrantReadWriteLock());
+    }
+
+    /**
+     * @param lock блокировка, которую наследник разделяет с обёрнутым менеджером
+     *             (например, чтобы сбрасывать состояние на диск под read-lock)
+     */
+    protected LockingTaskManager(InMemoryTaskManager delegate, ReadWriteLock lock) {
+        this.delegate = delegate;
+        this.lock = lock;
+    }
+
+    public void loadTask(Task task) {
+        run(lock.writeLock(), () -> delegate.loadTask(task));
+    }
+
+    public void loadEpic(Epic epic) {
+        run(lock.writeLock(), () -> delegate.loadEpic(epic));
+    }
+
+    public void loadSubtask(Subtask subtask) {
+        run(lock.writeLock(), () -> delegate.loadSubtask(subtask));
+    }
+
+    public void setIdCounter(int id) {
+        run(lock.writeLock(), () -> delegate.setIdCounter(id));
+    }
+
+    @Override
+    public int generateId() {
+        return delegate.generateId();
+    }
+
+    /* Add section */
+
+    @Override
+    public Task addTask(Task task) {
+        return compute(lock.writeLock(), () -> delegate.addTask(task));
+    }
+
+    @Override
+    public Epic addEpic(Epic epic) {
+        return compute(lock.writeLock(), () -> delegate.addEpic(epic));
+    }
+
+    @Override
+    public Subtask addSubtask(Subtask subtask) {
+        return compute(lock.writeLock(), () -> delegate.addSubtask(subtask));
+    }
+
+    @Override
+    public Task addTask(Task task, LocalDateTime from, LocalDateTime to) {
+        return compute(lock.writeLock(), () -> delegate.addTask(task, from, to));
+    }
+
+    @Override
+    public Subtask addSubtask(Subtask subtask, LocalDateTime from, LocalDateTime to) {
+        return compute(lock.writeLock(), () -> delegate.addSubtask(subtask, from, to));
+    }
+
+    /* Update section */
+
+    @Override
+    public Task updateTask(Task task) {
+        return compute(lock.writeLock(), () -> delegate.updateTask(task));
+    }
+
+    @Override
+    public Epic updateEpic(Epic epic) {
+        return compute(lock.writeLock(), () -> delegate.updateEpic(epic));
+    }
+
+    @Override
+    public Subtask updateSubtask(Subtask subtask) {
+        return compute(lock.writeLock(), () -> delegate.updateSubtask(subtask));
+    }
+
+    @Override
+    public void updateEpicStatus(Epic epic) {
+        run(lock.writeLock(), () -> delegate.updateEpicStatus(epic));
+    }
+
+    /* Get section */
+
+    @Override
+    public Task getTask(int taskId) {
+        return compute(lock.readLock(), () -> copy(delegate.getTask(taskId), Task::copy));
+    }
+
+    @Override
+    public Epic getEpic(int epicId) {
+        return compute(lock.readLock(), () -> copy(delegate.getEpic(epicId), ImmutableEpic::new));
+    }
+
+    @Override
+    public Subtask getSubtask(int subtaskId) {
+        return compute(lock.readLock(), () -> copy(delegate.getSubtask(subtaskId), Subtask::copy));
+    }
+
+    @Override
+    public ArrayList<Task> getTasks() {
+        return compute(lock.readLock(), () -> copyAll(delegate.getTasks(), Task::copy));
+    }
+
+    @Override
+    public ArrayList<Epic> getEpics() {
+        return compute(lock.readLock(), () -> copyAll(delegate.getEpics(), ImmutableEpic::new));
+    }
+
+    @Override
+    public ArrayList<Subtask> getSubtasks() {
+        return compute(lock.readLock(), () -> copyAll(delegate.getSubtasks(), Subtask::copy));
+    }
+
+    @Override
+    public ArrayList<Subtask> getEpicSubtasks(Epic epic) {
+        return compute(lock.readLock(), () -> copyAll(delegate.getEpicSubtasks(epic), Subtask::copy));
+    }
+
+    /* Filter section */
+
+    @Override
+    public List<Task> getTasksByStatus(Status status) {
+        return compute(lock.readLock(), () -> copyAll(delegate.getTasksByStatus(status), Task::copy));
+    }
+
+    @Override
+    public List<Epic> getEpicsByStatus(Status status) {
+        return compute(lock.readLock(), () -> copyAll(delegate.getEpicsByStatus(status), ImmutableEpic::new));
+    }
+
+    @Override
+    public List<Subtask> getSubtasksByStatus(Status status) {
+        return compute(lock.readLock(), () -> copyAll(delegate.getSubtasksByStatus(status), Subtask::copy));
+    }
+
+    @Override
+    public List<Subtask> getSubtasksByEpic(int epicId) {
+        return compute(lock.readLock(), () -> copyAll(delegate.getSubtasksByEpic(epicId), Subtask::copy));
+    }
+
+    @Override
+    public List<Subtask> getSubtasksByEpic(int epicId, Status status) {
+        return compute(lock.readLock(), () -> copyAll(delegate.getSubtasksByEpic(epicId, status), Subtask::copy));
+    }
+
+    /* Pagination section */
+
+    @Override
+    public List<Task> getTasks(int offset, int limit) {
+        return compute(lock.readLock(), () -> copyAll(delegate.getTasks(offset, limit), Task::copy));
+    }
+
+    @Override
+    public List<Epic> getEpics(int offset, int limit) {
+        return compute(lock.readLock(), () -> copyAll(delegate.getEpics(offset, limit), ImmutableEpic::new));
+    }
+
+    @Override
+    public List<Subtask> getSubtasks(int offset, int limit) {
+        return compute(lock.readLock(), () -> copyAll(delegate.getSubtasks(offset, limit), Subtask::copy));
+    }
+
+    @Override
+    public List<Task> getTasksAfter(int afterId, int limit) {
+        return compute(lock.readLock(), () -> copyAll(delegate.getTasksAfter(afterId, limit), Task::copy));
+    }
+
+    @Override
+    public List<Epic> getEpicsAfter(int afterId, int limit) {
+        return compute(lock.readLock(), () -> copyAll(delegate.getEpicsAfter(afterId, limit), ImmutableEpic::new));
+    }
+
+    @Override
+    public List<Subtask> getSubtasksAfter(int afterId, int limit) {
+        return compute(lock.readLock(), () -> copyAll(delegate.getSubtasksAfter(afterId, limit), Subtask::copy));
+    }
+
+    /* Delete section */
+
+    @Override
+    public void clearTasks() {
+        run(lock.writeLock(), delegate::clearTasks);
+    }
+
+    @Override
+    public void clearEpics() {
+        run(lock.writeLock(), delegate::clearEpics);
+    }
+
+    @Override
+    public void clearSubtasks() {
+        run(lock.writeLock(), delegate::clearSubtasks);
+    }
+
+    @Override
+    public void deleteTask(int taskId) {
+        run(lock.writeLock(), () -> delegate.deleteTask(taskId));
+    }
+
+    @Override
+    public void deleteEpic(int epicId) {
+        run(lock.writeLock(), () -> delegate.deleteEpic(epicId));
+    }
+
+    @Override
+    public void deleteSubtask(int subtaskId) {
+        run(lock.writeLock(), () -> delegate.deleteSubtask(subtaskId));
+    }
+
+    /* History */
+
+    @Override
+    public List<Task> getHistory() {
+        return delegate.getHistory();
+    }
+
+    @Override
+    public List<Task> getPrioritizedTasks() {
+        return compute(lock.readLock(), () -> copyAll(delegate.getPrioritizedTasks(), Task::copy));
+    }
+
+    @Override
+    public List<Task> getPrioritizedTasks(int offset, int limit) {
+        return compute(lock.readLock(), () -> copyAll(delegate.getPrioritizedTasks(offset, limit), Task::copy));
+    }
+
+    @Override
+    public List<Task> getPrioritizedTasksAfter(LocalDateTime afterStartTime, int limit) {
+        return compute(lock.readLock(),
+                () -> copyAll(delegate.getPrioritizedTasksAfter(afterStartTime, limit), Task::copy));
+    }
+
+    @Override
+    public List<TimeSlot> findFreeSlots(long duration, LocalDateTime from, LocalDateTime to, int limit) {
+        return compute(lock.readLock(), () -> delegate.findFreeSlots(duration, from, to, limit));
+    }
+
+    @Override
+    public List<Task> getPrioritizedTasksBetween(LocalDateTime from, LocalDateTime to) {
+        return compute(lock.readLock(), () -> copyAll(delegate.getPrioritizedTasksBetween(from, to), Task::copy));
+    }
+
+    /* Change feed */
+
+    @Override
+    public ChangeFeed getChangeFeed() {
+        return delegate.getChangeFeed();
+    }
+
+    @Override
+    public ChangeSet getChangesSince(long since) {
+        return compute(lock.readLock(), () -> delegate.getChangesSince(since));
+    }
+
+    @Override
+    public ChangeSet getChangesSince(String token) {
+        return compute(lock.readLock(), () -> delegate.getChangesSince(token));
+    }
+
+    @Override
+    public long getEntityVersion(int id) {
+        return compute(lock.readLock(), () -> delegate.getEntityVersion(id));
+    }
+
+    @Override
+    public long getCollectionVersion(TypeTask type) {
+        return compute(lock.readLock(), () -> delegate.getCollectionVersion(type));
+    }
+
+    protected static <T> T compute(Lock lock, Supplier<T> action) {
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    protected static void run(Lock lock, Runnable action) {
+        lock.lock();
+        try {
+            action.run();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
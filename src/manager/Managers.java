@@ -1,11 +1,15 @@
 package manager;
 
+import adapter.ChangeEventAdapter;
 import adapter.EpicAdapter;
 import adapter.SubtaskAdapter;
 import adapter.TaskAdapter;
+import adapter.TimeSlotAdapter;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import task.Epic;
+import task.ImmutableEpic;
+import task.ImmutableTask;
 import task.Subtask;
 import task.Task;
 
@@ -13,22 +17,62 @@ import java.io.File;
 
 public class Managers {
     private static final File DEFAULT_FILE = new File("tasks.csv");
+    private static final Gson COMPACT_GSON = createGson(false);
+    private static final Gson PRETTY_GSON = createGson(true);
 
     public static TaskManager getDefault() {
         return new FileBackedTaskManager(DEFAULT_FILE);
     }
 
+    public static ConcurrentTaskManager getConcurrent() {
+        return new ConcurrentTaskManager();
+    }
+
+    /**
+     * Потокобезопасный менеджер с отложенной записью, восстановленный из файла по умолчанию.
+     */
+    public static WriteBehindTaskManager getWriteBehind() {
+        return WriteBehindTaskManager.loadFromFile(DEFAULT_FILE);
+    }
+
     public static HistoryManager getDefaultHistory() {
-        return new InMemoryHistoryManager();
+        return new InMemoryHistoryManager(
+                Integer.getInteger("kanban.historyCapacity", InMemoryHistoryManager.UNBOUNDED));
+    }
+
+    public static ChangeFeed getDefaultChangeFeed() {
+        return new ChangeFeed(Integer.getInteger("kanban.changeFeedCapacity", ChangeFeed.DEFAULT_CAPACITY));
     }
 
     public static Gson getGson() {
-        return new GsonBuilder()
-                .setPrettyPrinting()
+        return COMPACT_GSON;
+    }
+
+    public static Gson getPrettyGson() {
+        return PRETTY_GSON;
+    }
+
+    private static Gson createGson(boolean prettyPrinting) {
+        GsonBuilder builder = new GsonBuilder()
                 .serializeNulls()
                 .registerTypeAdapter(Task.class, new TaskAdapter())
+                .registerTypeAdapter(ImmutableTask.class, new TaskAdapter())
                 .registerTypeAdapter(Epic.class, new EpicAdapter())
+                .registerTypeAdapter(ImmutableEpic.class, new EpicAdapter())
                 .registerTypeAdapter(Subtask.class, new SubtaskAdapter())
-                .create();
+                .registerTypeAdapter(TimeSlot.class, new TimeSlotAdapter())
+                .registerTypeAdapter(ChangeEvent.class, new ChangeEventAdapter());
+        if (prettyPrinting) {
+            builder.setPrettyPrinting();
+        }
+
+        Gson gson = builder.create();
+        gson.getAdapter(Task.class);
+        gson.getAdapter(ImmutableTask.class);
+        gson.getAdapter(Epic.class);
+        gson.getAdapter(Subtask.class);
+        gson.getAdapter(TimeSlot.class);
+        gson.getAdapter(ChangeEvent.class);
+        return gson;
     }
 }
\ No newline at end of file
@@ -0,0 +1,500 @@
+package manager;
+
+import task.Epic;
+import task.Subtask;
+import task.Task;
+import task.TypeTask;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Чтение CSV-снимка через FileChannel.map без загрузки файла в одну строку.
+ * Числа, тип, статус и время разбираются прямо из байтов отображённого буфера;
+ * строки создаются только для названия и описания. Файл отображается окнами
+ * по WINDOW_SIZE байт, поэтому размер снимка не ограничен 2 ГБ. readParallel разбирает
+ * куски файла по границам строк одновременно в ForkJoinPool.
+ *
+ * <p>Формат определяется по строке заголовка. В файле с заголовком HEADER после каждых
+ * BLOCK_RECORDS записей идёт строка "#xxxxxxxx" с CRC32 байтов блока, и записи блока
+ * принимаются только после проверки суммы. Без проверки читаются только файлы
+ * со старым заголовком LEGACY_HEADER; файл с незнакомым заголовком не читается.
+ */
+final class MappedCsvSnapshot {
+    static final int WINDOW_SIZE = 1 << 28;
+    static final int MIN_CHUNK_SIZE = 1 << 20;
+    static final int BLOCK_RECORDS = 64;
+    static final String HEADER = "id,type,name,status,description,epic,startTime,duration;format=2\n";
+    static final String LEGACY_HEADER = "id,type,name,status,description,epic,startTime,duration\n";
+
+    private static final int SCAN_SIZE = 1 << 16;
+
+    private static final TypeTask[] TYPES = TypeTask.values();
+    private static final Status[] STATUSES = Status.values();
+    private static final byte[][] TYPE_NAMES = names(TYPES);
+    private static final byte[][] STATUS_NAMES = names(STATUSES);
+    private static final byte[] NULL = "null".getBytes(StandardCharsets.US_ASCII);
+
+    private final MappedByteBuffer buffer;
+    private byte[] scratch = new byte[256];
+    private int position;
+    private int lineEnd;
+    private int fieldStart;
+    private int fieldEnd;
+
+    private MappedCsvSnapshot(MappedByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    static Map<Integer, Task> read(File file) throws IOException {
+        return read(file, WINDOW_SIZE, null);
+    }
+
+    static Map<Integer, Task> read(File file, int windowSize) throws IOException {
+        return read(file, windowSize, null);
+    }
+
+    /**
+     * Читает снимок. Если report == null, любое повреждение — IOException; иначе повреждённые
+     * блоки пропускаются и попадают в report, а остальные записи восстанавливаются.
+     */
+    static Map<Integer, Task> read(File file, int windowSize, RecoveryReport report) throws IOException {
+        Map<Integer, Task> tasks = new LinkedHashMap<>();
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            readRange(channel, 0, size, windowSize, true, isChecksummed(channel, size),
+                    task -> tasks.put(task.getTaskId(), task), report);
+        }
+        return tasks;
+    }
+
+    /**
+     * Делит файл на куски по границам блоков (или строк для файлов без контрольных сумм)
+     * и разбирает их параллельно в пуле. Порядок записей сохраняется: при повторе id
+     * побеждает более поздняя строка, как и в read(). Повреждение — IOException.
+     */
+    static Map<Integer, Task> readParallel(File file, ForkJoinPool pool) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            boolean checksummed = isChecksummed(channel, size);
+            int chunks = (int) Math.max(1, Math.min(pool.getParallelism() * 4L, size / MIN_CHUNK_SIZE));
+
+            List<Long> bounds = new ArrayList<>();
+            bounds.add(0L);
+            for (int i = 1; i < chunks; i++) {
+                long position = size * i / chunks;
+                long bound = checksummed ? nextBlockStart(channel, position, size) : nextLineStart(channel, position, size);
+                if (bound > bounds.getLast() && bound < size) {
+                    bounds.add(bound);
+                }
+            }
+            bounds.add(size);
+
+            List<ForkJoinTask<List<Task>>> parts = new ArrayList<>();
+            for (int i = 0; i + 1 < bounds.size(); i++) {
+                long from = bounds.get(i);
+                long to = bounds.get(i + 1);
+                boolean first = i == 0;
+                parts.add(pool.submit(() -> {
+                    List<Task> part = new ArrayList<>();
+                    readRange(channel, from, to, WINDOW_SIZE, first, checksummed, part::add, null);
+                    return part;
+                }));
+            }
+
+            Map<Integer, Task> tasks = new LinkedHashMap<>();
+            for (ForkJoinTask<List<Task>> part : parts) {
+                part.get().forEach(task -> tasks.put(task.getTaskId(), task));
+            }
+            return tasks;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Загрузка снимка прервана", e);
+        } catch (ExecutionException e) {
+            // ForkJoinTask заворачивает проверяемые исключения задачи в RuntimeException
+            for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+                if (cause instanceof IOException) {
+                    throw (IOException) cause;
+                }
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IOException("Ошибка разбора снимка", e.getCause());
+        }
+    }
+
+    private static void readRange(FileChannel channel, long from, long to, int windowSize, boolean skipHeader,
+                                  boolean checksummed, Consumer<Task> sink, RecoveryReport report) throws IOException {
+        long offset = from;
+        boolean header = skipHeader;
+        Block block = checksummed ? new Block(from) : null;
+
+        while (offset < to) {
+            int length = (int) Math.min(to - offset, windowSize);
+            boolean lastWindow = offset + length == to;
+            MappedCsvSnapshot reader = new MappedCsvSnapshot(
+                    channel.map(FileChannel.MapMode.READ_ONLY, offset, length));
+
+            int lineStart = 0;
+            for (int i = 0; i <= length; i++) {
+                boolean endOfLine = i < length ? reader.buffer.get(i) == '\n' : lastWindow;
+                if (!endOfLine) {
+                    continue;
+                }
+                int next = Math.min(i + 1, length);
+                if (header) {
+                    header = false;
+                    if (block != null) {
+                        block.start = offset + next;
+                    }
+                } else if (block != null && i > lineStart && reader.buffer.get(lineStart) == '#') {
+                    block.close(reader.checksum(lineStart + 1, i), offset + next, sink, report);
+                } else {
+                    if (block != null && next > lineStart) {
+                        block.crc.update(reader.buffer.slice(lineStart, next - lineStart));
+                        block.open = true;
+                    }
+                    if (!reader.isBlank(lineStart, i)) {
+                        try {
+                            Task task = reader.parseLine(lineStart, i);
+                            if (block != null) {
+                                block.pending.add(task);
+                            } else {
+                                sink.accept(task);
+                            }
+                        } catch (RuntimeException e) {
+                            String reason = "строка не разбирается: " + e.getMessage();
+                            if (block != null) {
+                                block.broken = reason;
+                            } else {
+                                damaged(report, offset + lineStart, offset + next, reason);
+                            }
+                        }
+                    }
+                }
+                lineStart = i + 1;
+            }
+
+            if (lineStart == 0 && !lastWindow) {
+                throw new IOException("Строка снимка длиннее окна отображения");
+            }
+            offset += Math.min(lineStart, length);
+        }
+
+        if (block != null && block.open) {
+            damaged(report, block.start, to, "нет контрольной суммы последнего блока, файл обрезан");
+            block.pending.forEach(sink);
+        }
+    }
+
+    private static void damaged(RecoveryReport report, long start, long end, String reason) throws IOException {
+        if (report == null) {
+            throw new IOException("Снимок повреждён: [" + start + ", " + end + ") " + reason);
+        }
+        report.damaged(start, end, reason);
+    }
+
+    /**
+     * Проверяет заголовок: HEADER — блоки с контрольными суммами, LEGACY_HEADER — старый формат
+     * без них, пустой файл — пустой снимок. Любой другой заголовок — IOException.
+     */
+    private static boolean isChecksummed(FileChannel channel, long size) throws IOException {
+        if (size == 0) {
+            return false;
+        }
+        int length = (int) Math.min(size, HEADER.length() + 1);
+        byte[] bytes = new byte[length];
+        channel.map(FileChannel.MapMode.READ_ONLY, 0, length).get(bytes);
+        String start = new String(bytes, StandardCharsets.UTF_8).replace("\r\n", "\n");
+        if (length == size && !start.endsWith("\n")) {
+            start += "\n";
+        }
+        if (start.startsWith(HEADER)) {
+            return true;
+        }
+        if (start.startsWith(LEGACY_HEADER)) {
+            return false;
+        }
+        int lineEnd = start.indexOf('\n');
+        throw new IOException("Неизвестный заголовок снимка: " + (lineEnd < 0 ? start : start.substring(0, lineEnd)));
+    }
+
+    private static byte byteAt(FileChannel channel, long position) throws IOException {
+        return channel.map(FileChannel.MapMode.READ_ONLY, position, 1).get(0);
+    }
+
+    private static long nextLineStart(FileChannel channel, long position, long size) throws IOException {
+        while (position < size) {
+            int length = (int) Math.min(size - position, SCAN_SIZE);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+            for (int i = 0; i < length; i++) {
+                if (buffer.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += length;
+        }
+        return size;
+    }
+
+    /**
+     * Позиция сразу после ближайшей строки контрольной суммы, начинающейся после position.
+     */
+    private static long nextBlockStart(FileChannel channel, long position, long size) throws IOException {
+        long line = nextLineStart(channel, position, size);
+        while (line < size) {
+            long next = nextLineStart(channel, line, size);
+            if (byteAt(channel, line) == '#') {
+                return next;
+            }
+            line = next;
+        }
+        return size;
+    }
+
+    private long checksum(int start, int end) {
+        if (end > start && buffer.get(end - 1) == '\r') {
+            end--;
+        }
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            int digit = Character.digit(buffer.get(i), 16);
+            if (digit < 0 || end - start > 8) {
+                return -1;
+            }
+            value = value << 4 | digit;
+        }
+        return end > start ? value : -1;
+    }
+
+    /**
+     * Текущий блок записей: CRC32 его байтов и разобранные записи, которые отдаются
+     * дальше только после совпадения контрольной суммы.
+     */
+    private static class Block {
+        final CRC32 crc = new CRC32();
+        final List<Task> pending = new ArrayList<>(BLOCK_RECORDS);
+        long start;
+        boolean open;
+        String broken;
+
+        Block(long start) {
+            this.start = start;
+        }
+
+        void close(long expected, long end, Consumer<Task> sink, RecoveryReport report) throws IOException {
+            try {
+                if (expected != crc.getValue()) {
+                    damaged(report, start, end, "контрольная сумма блока не совпадает");
+                } else if (broken != null) {
+                    damaged(report, start, end, broken);
+                } else {
+                    pending.forEach(sink);
+                }
+            } finally {
+                crc.reset();
+                pending.clear();
+                broken = null;
+                open = false;
+                start = end;
+            }
+        }
+    }
+
+    private Task parseLine(int start, int end) {
+        if (end > start && buffer.get(end - 1) == '\r') {
+            end--;
+        }
+        position = start;
+        lineEnd = end;
+
+        requireField();
+        int id = (int) parseLong();
+        requireField();
+        TypeTask type = TYPES[match(TYPE_NAMES, "тип задачи")];
+        requireField();
+        String name = string(fieldStart, fieldEnd);
+        requireField();
+        Status status = STATUSES[match(STATUS_NAMES, "статус")];
+        requireField();
+        String description = string(fieldStart, fieldEnd);
+
+        int epicId = nextField() && fieldEnd > fieldStart ? (int) parseLong() : -1;
+        LocalDateTime startTime = nextField() && !isNull()
+                ? parseDateTime(fieldStart, fieldEnd)
+                : null;
+        long duration = nextField() ? parseLong() : 0;
+
+        switch (type) {
+            case TASK:
+                return new Task(name, description, id, status, startTime, duration);
+            case EPIC:
+                return new Epic(name, description, id, status, startTime, duration);
+            default:
+                return new Subtask(name, description, id, status, epicId, startTime, duration);
+        }
+    }
+
+    /**
+     * Выделяет следующее поле строки в [fieldStart, fieldEnd). Возвращает false, если полей больше нет.
+     */
+    private boolean nextField() {
+        if (position > lineEnd) {
+            return false;
+        }
+        fieldStart = position;
+        int i = fieldStart;
+        while (i < lineEnd && buffer.get(i) != ',') {
+            i++;
+        }
+        fieldEnd = i;
+        position = i + 1;
+        return true;
+    }
+
+    private void requireField() {
+        if (!nextField()) {
+            throw new IllegalArgumentException("Неполная строка снимка");
+        }
+    }
+
+    private long parseLong() {
+        int i = fieldStart;
+        boolean negative = i < fieldEnd && buffer.get(i) == '-';
+        if (negative) {
+            i++;
+        }
+        if (i == fieldEnd) {
+            throw new NumberFormatException("Пустое числовое поле");
+        }
+        long result = 0;
+        for (; i < fieldEnd; i++) {
+            int digit = buffer.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                throw new NumberFormatException("Некорректное число: " + string(fieldStart, fieldEnd));
+            }
+            result = result * 10 + digit;
+        }
+        return negative ? -result : result;
+    }
+
+    private int match(byte[][] names, String what) {
+        int length = fieldEnd - fieldStart;
+        for (int index = 0; index < names.length; index++) {
+            byte[] name = names[index];
+            if (name.length != length) {
+                continue;
+            }
+            int i = 0;
+            while (i < length && buffer.get(fieldStart + i) == name[i]) {
+                i++;
+            }
+            if (i == length) {
+                return index;
+            }
+        }
+        throw new IllegalArgumentException("Неизвестный " + what + ": " + string(fieldStart, fieldEnd));
+    }
+
+    private boolean isNull() {
+        if (fieldEnd - fieldStart != NULL.length) {
+            return false;
+        }
+        for (int i = 0; i < NULL.length; i++) {
+            if (buffer.get(fieldStart + i) != NULL[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Разбирает время в формате LocalDateTime.toString(): yyyy-MM-ddTHH:mm[:ss[.f…]].
+     * Нестандартные значения (например, годы за пределами 0000-9999) отдаются LocalDateTime.parse.
+     */
+    private LocalDateTime parseDateTime(int start, int end) {
+        int length = end - start;
+        if (length < 16 || buffer.get(start + 4) != '-' || buffer.get(start + 7) != '-'
+                || buffer.get(start + 10) != 'T' || buffer.get(start + 13) != ':') {
+            return LocalDateTime.parse(string(start, end));
+        }
+        int year = digits(start, 4);
+        int month = digits(start + 5, 2);
+        int day = digits(start + 8, 2);
+        int hour = digits(start + 11, 2);
+        int minute = digits(start + 14, 2);
+        int second = 0;
+        int nano = 0;
+        if (length >= 19 && buffer.get(start + 16) == ':') {
+            second = digits(start + 17, 2);
+            if (length > 20 && buffer.get(start + 19) == '.') {
+                int fractionLength = length - 20;
+                nano = digits(start + 20, fractionLength);
+                for (int i = fractionLength; i < 9; i++) {
+                    nano *= 10;
+                }
+            }
+        }
+        if (year < 0 || month < 0 || day < 0 || hour < 0 || minute < 0 || second < 0 || nano < 0) {
+            return LocalDateTime.parse(string(start, end));
+        }
+        return LocalDateTime.of(year, month, day, hour, minute, second, nano);
+    }
+
+    private int digits(int start, int count) {
+        if (count > 9) {
+            return -1;
+        }
+        int result = 0;
+        for (int i = start; i < start + count; i++) {
+            int digit = buffer.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            result = result * 10 + digit;
+        }
+        return result;
+    }
+
+    private String string(int start, int end) {
+        int length = end - start;
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        buffer.get(start, scratch, 0, length);
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private boolean isBlank(int start, int end) {
+        for (int i = start; i < end; i++) {
+            byte b = buffer.get(i);
+            if (b != ' ' && b != '\t' && b != '\r') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static byte[][] names(Enum<?>[] values) {
+        byte[][] names = new byte[values.length][];
+        for (int i = 0; i < values.length; i++) {
+            names[i] = values[i].name().getBytes(StandardCharsets.US_ASCII);
+        }
+        return names;
+    }
+}
@@ -0,0 +1,113 @@
+package manager;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Результат чтения снимка в режиме восстановления: какие участки файла (в байтах)
+ * оказались повреждены и были пропущены (соседние участки склеиваются), и какие подзадачи
+ * отброшены, потому что их эпика нет среди загруженных. Менеджер из нескольких файлов
+ * собирает их повреждения в один отчёт через forFile().
+ */
+public class RecoveryReport {
+    private final File file;
+    private final List<DamagedRange> damagedRanges;
+    private final List<Integer> droppedSubtaskIds;
+
+    public RecoveryReport(File file) {
+        this(file, new ArrayList<>(), new ArrayList<>());
+    }
+
+    private RecoveryReport(File file, List<DamagedRange> damagedRanges, List<Integer> droppedSubtaskIds) {
+        this.file = file;
+        this.damagedRanges = damagedRanges;
+        this.droppedSubtaskIds = droppedSubtaskIds;
+    }
+
+    /**
+     * Отчёт для чтения отдельного файла (например, сегмента), пишущий в этот же отчёт:
+     * найденные участки помечаются этим файлом.
+     */
+    RecoveryReport forFile(File part) {
+        return new RecoveryReport(part, damagedRanges, droppedSubtaskIds);
+    }
+
+    public boolean isClean() {
+        return damagedRanges.isEmpty();
+    }
+
+    public List<DamagedRange> getDamagedRanges() {
+        return Collections.unmodifiableList(damagedRanges);
+    }
+
+    /**
+     * Id подзадач без эпика, не попавших в менеджер. На isClean() не влияет: такие записи
+     * остаются и после штатного удаления эпика в журнале или сегментах.
+     */
+    public List<Integer> getDroppedSubtaskIds() {
+        return Collections.unmodifiableList(droppedSubtaskIds);
+    }
+
+    void droppedSubtask(int id) {
+        droppedSubtaskIds.add(id);
+    }
+
+    void damaged(long start, long end, String reason) {
+        if (!damagedRanges.isEmpty()) {
+            DamagedRange last = damagedRanges.getLast();
+            if (last.file.equals(file) && last.end == start && last.reason.equals(reason)) {
+                damagedRanges.set(damagedRanges.size() - 1, new DamagedRange(file, last.start, end, reason));
+                return;
+            }
+        }
+        damagedRanges.add(new DamagedRange(file, start, end, reason));
+    }
+
+    @Override
+    public String toString() {
+        String result = isClean()
+                ? "Снимок " + file + " прочитан без повреждений"
+                : "Снимок " + file + " повреждён, пропущены участки: " + damagedRanges;
+        if (!droppedSubtaskIds.isEmpty()) {
+            result += "; отброшены подзадачи без эпика: " + droppedSubtaskIds;
+        }
+        return result;
+    }
+
+    public static class DamagedRange {
+        private final File file;
+        private final long start;
+        private final long end;
+        private final String reason;
+
+        DamagedRange(File file, long start, long end, String reason) {
+            this.file = file;
+            this.start = start;
+            this.end = end;
+            this.reason = reason;
+        }
+
+        public File getFile() {
+            return file;
+        }
+
+        public long getStart() {
+            return start;
+        }
+
+        public long getEnd() {
+            return end;
+        }
+
+        public String getReason() {
+            return reason;
+        }
+
+        @Override
+        public String toString() {
+            return "[" + start + ", " + end + ") " + reason;
+        }
+    }
+}
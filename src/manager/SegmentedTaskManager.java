@@ -0,0 +1,195 @@
+package manager;
+
+import exception.ManagerSaveException;
+import task.Epic;
+import task.Task;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Менеджер с сегментированным хранилищем: задачи раскладываются по файлам-сегментам
+ * директории по диапазонам id (segmentSize id на сегмент). Мутация помечает грязным
+ * только сегмент изменённой записи, и сохранение перезаписывает лишь грязные сегменты.
+ * Каждый сегмент пишется в формате менеджера (CSV или BINARY).
+ */
+public class SegmentedTaskManager extends FileBackedTaskManager {
+    public static final int DEFAULT_SEGMENT_SIZE = 1024;
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".dat";
+
+    private final int segmentSize;
+    private final NavigableSet<Integer> dirtySegments = new TreeSet<>();
+    private final Set<Integer> segmentsOnDisk = new HashSet<>();
+
+    public SegmentedTaskManager(File directory) {
+        this(directory, SnapshotFormat.CSV, DEFAULT_SEGMENT_SIZE);
+    }
+
+    public SegmentedTaskManager(File directory, SnapshotFormat format, int segmentSize) {
+        super(directory, format);
+        if (segmentSize <= 0) {
+            throw new IllegalArgumentException("Размер сегмента должен быть положительным");
+        }
+        this.segmentSize = segmentSize;
+    }
+
+    @Override
+    void saveTask(Task task) {
+        markDirty(task.getTaskId());
+        flushDirty();
+    }
+
+    @Override
+    void saveRemoval(int id) {
+        markDirty(id);
+        flushDirty();
+    }
+
+    @Override
+    void saveEpic(Epic epic) {
+        markDirty(epic.getTaskId());
+        epic.getSubtasks().forEach(subtask -> markDirty(subtask.getTaskId()));
+        flushDirty();
+    }
+
+    /**
+     * Полная перезапись: все сегменты на диске и все сегменты с текущими задачами.
+     */
+    @Override
+    void save() {
+        dirtySegments.addAll(segmentsOnDisk);
+        getTasks().forEach(task -> markDirty(task.getTaskId()));
+        getEpics().forEach(epic -> markDirty(epic.getTaskId()));
+        getSubtasks().forEach(subtask -> markDirty(subtask.getTaskId()));
+        flushDirty();
+    }
+
+    /**
+     * Подзадачи, которые updateEpic уберёт у эпика, лежат в своих сегментах — помечаем их заранее.
+     */
+    @Override
+    public Epic updateEpic(Epic epic) {
+        if (epic != null) {
+            Epic existing = findEpic(epic.getTaskId());
+            if (existing != null) {
+                existing.getSubtasks().forEach(subtask -> markDirty(subtask.getTaskId()));
+            }
+        }
+        return super.updateEpic(epic);
+    }
+
+    /**
+     * Подзадачи удаляемого эпика могут лежать в других сегментах — помечаем их заранее.
+     */
+    @Override
+    public void deleteEpic(int epicId) {
+        Epic existing = findEpic(epicId);
+        if (existing != null) {
+            existing.getSubtasks().forEach(subtask -> markDirty(subtask.getTaskId()));
+        }
+        super.deleteEpic(epicId);
+    }
+
+    int getSegmentCount() {
+        return segmentsOnDisk.size();
+    }
+
+    int segmentOf(int id) {
+        return Math.floorDiv(id, segmentSize);
+    }
+
+    private void markDirty(int id) {
+        dirtySegments.add(segmentOf(id));
+    }
+
+    private void flushDirty() {
+        File directory = getFile();
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new ManagerSaveException("Не удалось создать директорию " + directory, null);
+        }
+
+        while (!dirtySegments.isEmpty()) {
+            int segment = dirtySegments.first();
+            long from = (long) segment * segmentSize;
+            long to = from + segmentSize - 1;
+            List<Task> records = getRange(clamp(from), clamp(to));
+            File segmentFile = segmentFile(directory, segment);
+
+            try {
+                if (records.isEmpty()) {
+                    Files.deleteIfExists(segmentFile.toPath());
+                    segmentsOnDisk.remove(segment);
+                } else {
+                    getFormat().write(segmentFile, records);
+                    segmentsOnDisk.add(segment);
+                }
+            } catch (IOException e) {
+                throw new ManagerSaveException("Ошибка сохранения сегмента " + segmentFile.getName(), e);
+            }
+            dirtySegments.remove(segment);
+        }
+    }
+
+    private static int clamp(long id) {
+        return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, id));
+    }
+
+    private static File segmentFile(File directory, int segment) {
+        return new File(directory, SEGMENT_PREFIX + segment + SEGMENT_SUFFIX);
+    }
+
+    public static SegmentedTaskManager loadFromDirectory(File directory) {
+        return loadFromDirectory(directory, SnapshotFormat.CSV, DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * Загружает все сегменты директории. Повреждённые участки сегментов пропускаются и собираются
+     * в один getRecoveryReport(); у каждого участка указан файл его сегмента.
+     */
+    public static SegmentedTaskManager loadFromDirectory(File directory, SnapshotFormat format, int segmentSize) {
+        SegmentedTaskManager manager = new SegmentedTaskManager(directory, format, segmentSize);
+
+        TreeMap<Integer, File> segmentFiles = new TreeMap<>();
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                String name = file.getName();
+                if (name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX)) {
+                    String number = name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length());
+                    segmentFiles.put(Integer.parseInt(number), file);
+                }
+            }
+        }
+
+        Map<Integer, Task> loaded = new LinkedHashMap<>();
+        boolean misplaced = false;
+        for (Map.Entry<Integer, File> entry : segmentFiles.entrySet()) {
+            for (Task task : readSnapshot(entry.getValue(), format,
+                    manager.getRecoveryReport().forFile(entry.getValue())).values()) {
+                loaded.put(task.getTaskId(), task);
+                misplaced |= manager.segmentOf(task.getTaskId()) != entry.getKey();
+            }
+            manager.segmentsOnDisk.add(entry.getKey());
+        }
+
+        int before = loaded.size();
+        dropOrphanSubtasks(loaded.values(), manager.getRecoveryReport());
+        restore(manager, loaded.values());
+        if (misplaced || loaded.size() != before) {
+            // Сегменты записаны с другим segmentSize или хранят подзадачи без эпика — перезаписываем
+            manager.save();
+        }
+        return manager;
+    }
+}
@@ -0,0 +1,66 @@
+package manager;
+
+import task.Task;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Формат файла снимка FileBackedTaskManager. CSV — текстовый формат по умолчанию,
+ * BINARY — компактный формат с быстрой загрузкой (см. BinarySnapshot).
+ * Оба формата содержат контрольные суммы и записываются атомарно.
+ */
+public enum SnapshotFormat {
+    CSV,
+    BINARY;
+
+    /**
+     * Пишет снимок во временный файл рядом с целевым, сбрасывает его на диск и
+     * переименовывает поверх целевого, так что при сбое на диске остаётся либо
+     * старый, либо новый снимок целиком.
+     */
+    void write(File file, Collection<Task> tasks) throws IOException {
+        Path target = file.toPath();
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try {
+            switch (this) {
+                case BINARY:
+                    BinarySnapshot.write(temp.toFile(), tasks);
+                    break;
+                default:
+                    FileBackedTaskManager.writeCsv(temp.toFile(), tasks);
+            }
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                channel.force(true);
+            }
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Читает снимок. При report == null повреждение приводит к IOException,
+     * иначе повреждённые участки пропускаются и записываются в report.
+     */
+    Map<Integer, Task> read(File file, RecoveryReport report) throws IOException {
+        switch (this) {
+            case BINARY:
+                return BinarySnapshot.read(file, report);
+            default:
+                return FileBackedTaskManager.readCsv(file, report);
+        }
+    }
+}
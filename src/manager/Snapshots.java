@@ -0,0 +1,30 @@
+package manager;
+
+import task.Task;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.function.UnaryOperator;
+
+/**
+ * Копии сущностей для потокобезопасных менеджеров. Копии снимаются под read-lock,
+ * поэтому обработчик может сериализовать их после снятия блокировки, пока писатели
+ * меняют оригиналы (например, статус эпика) на месте.
+ */
+final class Snapshots {
+
+    private Snapshots() {
+    }
+
+    static <T extends Task> T copy(T task, UnaryOperator<T> copier) {
+        return task == null ? null : copier.apply(task);
+    }
+
+    static <T extends Task> ArrayList<T> copyAll(Collection<T> tasks, UnaryOperator<T> copier) {
+        ArrayList<T> copies = new ArrayList<>(tasks.size());
+        for (T task : tasks) {
+            copies.add(copier.apply(task));
+        }
+        return copies;
+    }
+}
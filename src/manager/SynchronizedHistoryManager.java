@@ -0,0 +1,32 @@
+package manager;
+
+import task.Task;
+
+import java.util.List;
+
+/**
+ * История под собственным монитором: просмотр задачи меняет историю даже под read-lock
+ * менеджера, поэтому параллельные читатели не должны обращаться к ней напрямую.
+ */
+class SynchronizedHistoryManager implements HistoryManager {
+    private final HistoryManager delegate;
+
+    SynchronizedHistoryManager(HistoryManager delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public synchronized void add(Task task) {
+        delegate.add(task);
+    }
+
+    @Override
+    public synchronized void remove(int id) {
+        delegate.remove(id);
+    }
+
+    @Override
+    public synchronized List<Task> getHistory() {
+        return delegate.getHistory();
+    }
+}
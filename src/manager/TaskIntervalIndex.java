@@ -0,0 +1,243 @@
+package manager;
+
+import task.Task;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Индекс временных интервалов задач для быстрой проверки пересечений.
+ * Сбалансированное AVL-дерево по (startTime, id), каждый узел хранит максимальное
+ * время окончания в своём поддереве. Границы интервала запоминаются при вставке,
+ * поэтому удаление по id корректно даже если задачу изменили "на месте".
+ */
+class TaskIntervalIndex {
+    private final Map<Integer, Node> nodesById = new HashMap<>();
+    private Node root;
+
+    void add(Task task) {
+        LocalDateTime start = task.getStartTime();
+        if (start == null) {
+            return;
+        }
+        LocalDateTime end = task.getEndTime();
+        if (end == null) {
+            return;
+        }
+        remove(task.getTaskId());
+
+        Node node = new Node(task, start, end);
+        nodesById.put(node.id, node);
+        root = insert(root, node);
+    }
+
+    void remove(int taskId) {
+        Node node = nodesById.remove(taskId);
+        if (node != null) {
+            root = delete(root, node.start, node.id);
+        }
+    }
+
+    void clear() {
+        nodesById.clear();
+        root = null;
+    }
+
+    int size() {
+        return nodesById.size();
+    }
+
+    boolean overlaps(LocalDateTime start, LocalDateTime end, int excludeId) {
+        if (start == null || end == null) {
+            return false;
+        }
+        return overlaps(root, start, end, excludeId);
+    }
+
+    /**
+     * Задачи, чей интервал [start, end] пересекается с окном (границы включительные), по возрастанию
+     * времени начала. Поддеревья с maxEnd до начала окна и с началом после его конца не посещаются,
+     * поэтому для непересекающегося расписания стоимость O(log N + k).
+     */
+    List<Task> overlapping(LocalDateTime start, LocalDateTime end) {
+        List<Task> result = new ArrayList<>();
+        forEachOverlapping(start, end, (task, taskStart, taskEnd) -> result.add(task));
+        return result;
+    }
+
+    /**
+     * Обходит пересекающиеся с окном интервалы в том же порядке, что и overlapping;
+     * обход прекращается, как только visitor вернёт false.
+     */
+    void forEachOverlapping(LocalDateTime start, LocalDateTime end, IntervalVisitor visitor) {
+        visit(root, start, end, visitor);
+    }
+
+    private boolean visit(Node node, LocalDateTime start, LocalDateTime end, IntervalVisitor visitor) {
+        if (node == null || node.maxEnd.isBefore(start)) {
+            return true;
+        }
+        if (!visit(node.left, start, end, visitor)) {
+            return false;
+        }
+        if (node.start.isAfter(end)) {
+            return false;
+        }
+        if (!node.end.isBefore(start) && !visitor.visit(node.task, node.start, node.end)) {
+            return false;
+        }
+        return visit(node.right, start, end, visitor);
+    }
+
+    private boolean overlaps(Node node, LocalDateTime start, LocalDateTime end, int excludeId) {
+        if (node == null || node.maxEnd.isBefore(start)) {
+            return false;
+        }
+        if (overlaps(node.left, start, end, excludeId)) {
+            return true;
+        }
+        if (node.id != excludeId && !node.start.isAfter(end) && !node.end.isBefore(start)) {
+            return true;
+        }
+        if (node.start.isAfter(end)) {
+            return false;
+        }
+        return overlaps(node.right, start, end, excludeId);
+    }
+
+    @FunctionalInterface
+    interface IntervalVisitor {
+        /**
+         * Получает задачу и границы, с которыми она была проиндексирована.
+         */
+        boolean visit(Task task, LocalDateTime start, LocalDateTime end);
+    }
+
+    /* AVL */
+
+    private static int compare(LocalDateTime start1, int id1, LocalDateTime start2, int id2) {
+        int result = start1.compareTo(start2);
+        return result != 0 ? result : Integer.compare(id1, id2);
+    }
+
+    private Node insert(Node node, Node newNode) {
+        if (node == null) {
+            return newNode;
+        }
+        if (compare(newNode.start, newNode.id, node.start, node.id) < 0) {
+            node.left = insert(node.left, newNode);
+        } else {
+            node.right = insert(node.right, newNode);
+        }
+        return balance(node);
+    }
+
+    private Node delete(Node node, LocalDateTime start, int id) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = compare(start, id, node.start, node.id);
+        if (cmp < 0) {
+            node.left = delete(node.left, start, id);
+        } else if (cmp > 0) {
+            node.right = delete(node.right, start, id);
+        } else {
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+            Node successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            successor.right = removeMin(node.right);
+            successor.left = node.left;
+            node = successor;
+        }
+        return balance(node);
+    }
+
+    private Node removeMin(Node node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        node.left = removeMin(node.left);
+        return balance(node);
+    }
+
+    private Node balance(Node node) {
+        update(node);
+        int factor = height(node.left) - height(node.right);
+        if (factor > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (factor < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static void update(Node node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        LocalDateTime maxEnd = node.end;
+        if (node.left != null && node.left.maxEnd.isAfter(maxEnd)) {
+            maxEnd = node.left.maxEnd;
+        }
+        if (node.right != null && node.right.maxEnd.isAfter(maxEnd)) {
+            maxEnd = node.right.maxEnd;
+        }
+        node.maxEnd = maxEnd;
+    }
+
+    private static class Node {
+        final Task task;
+        final int id;
+        final LocalDateTime start;
+        final LocalDateTime end;
+        LocalDateTime maxEnd;
+        int height = 1;
+        Node left;
+        Node right;
+
+        Node(Task task, LocalDateTime start, LocalDateTime end) {
+            this.task = task;
+            this.id = task.getTaskId();
+            this.start = start;
+            this.end = end;
+            this.maxEnd = end;
+        }
+    }
+}
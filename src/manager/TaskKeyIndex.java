@@ -0,0 +1,70 @@
+package manager;
+
+import task.Task;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * Вторичный индекс задач по ключу (статусу, id эпика): внутри группы задачи упорядочены по id.
+ * Ключ запоминается при вставке, поэтому задачу можно переиндексировать или удалить по id,
+ * даже если её изменили "на месте". Выборка группы стоит O(размер результата).
+ */
+class TaskKeyIndex<K, T extends Task> {
+    private final Function<? super T, ? extends K> keyExtractor;
+    private final Map<K, NavigableMap<Integer, T>> groups = new HashMap<>();
+    private final Map<Integer, K> keysById = new HashMap<>();
+
+    TaskKeyIndex(Function<? super T, ? extends K> keyExtractor) {
+        this.keyExtractor = keyExtractor;
+    }
+
+    void put(T task) {
+        int id = task.getTaskId();
+        remove(id);
+        K key = keyExtractor.apply(task);
+        if (key == null) {
+            return;
+        }
+        groups.computeIfAbsent(key, k -> new TreeMap<>()).put(id, task);
+        keysById.put(id, key);
+    }
+
+    void remove(int id) {
+        K key = keysById.remove(id);
+        if (key == null) {
+            return;
+        }
+        NavigableMap<Integer, T> group = groups.get(key);
+        group.remove(id);
+        if (group.isEmpty()) {
+            groups.remove(key);
+        }
+    }
+
+    void clear() {
+        groups.clear();
+        keysById.clear();
+    }
+
+    Collection<T> get(K key) {
+        NavigableMap<Integer, T> group = groups.get(key);
+        return group == null ? Collections.emptyList() : group.values();
+    }
+
+    List<T> list(K key) {
+        return new ArrayList<>(get(key));
+    }
+
+    int count(K key) {
+        NavigableMap<Integer, T> group = groups.get(key);
+        return group == null ? 0 : group.size();
+    }
+}
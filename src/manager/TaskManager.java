@@ -1,5 +1,6 @@
 package manager;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -17,6 +18,14 @@ public interface TaskManager {
 
     Subtask addSubtask(Subtask subtask);
 
+    /**
+     * Добавление с автоматическим размещением: задача без startTime ставится в первое
+     * свободное окно промежутка [from, to].
+     */
+    Task addTask(Task task, LocalDateTime from, LocalDateTime to);
+
+    Subtask addSubtask(Subtask subtask, LocalDateTime from, LocalDateTime to);
+
     /* Update section */
 
     Task updateTask(Task task);
@@ -43,6 +52,32 @@ public interface TaskManager {
 
     ArrayList<Subtask> getEpicSubtasks(Epic epic);
 
+    /* Filter section */
+
+    List<Task> getTasksByStatus(Status status);
+
+    List<Epic> getEpicsByStatus(Status status);
+
+    List<Subtask> getSubtasksByStatus(Status status);
+
+    List<Subtask> getSubtasksByEpic(int epicId);
+
+    List<Subtask> getSubtasksByEpic(int epicId, Status status);
+
+    /* Pagination section */
+
+    List<Task> getTasks(int offset, int limit);
+
+    List<Epic> getEpics(int offset, int limit);
+
+    List<Subtask> getSubtasks(int offset, int limit);
+
+    List<Task> getTasksAfter(int afterId, int limit);
+
+    List<Epic> getEpicsAfter(int afterId, int limit);
+
+    List<Subtask> getSubtasksAfter(int afterId, int limit);
+
     /* Delete section */
 
     void clearTasks();
@@ -57,9 +92,54 @@ public interface TaskManager {
 
     void deleteSubtask(int subtaskId);
 
+    /* Change feed */
+
+    /**
+     * Лента событий ADDED/UPDATED/DELETED по всем мутациям менеджера.
+     */
+    ChangeFeed getChangeFeed();
+
+    /**
+     * Сущности, созданные, изменённые или удалённые после версии since; -1 — полный снимок.
+     * null означает, что дельту построить нельзя и нужна полная синхронизация.
+     */
+    ChangeSet getChangesSince(long since);
+
+    /**
+     * Как getChangesSince(long), но по токену "эпоха:версия" из предыдущего ChangeSet; null — полный
+     * снимок. Токен другого запуска менеджера даёт null: его версии относятся к другой истории.
+     */
+    ChangeSet getChangesSince(String token);
+
+    /**
+     * Версия последнего изменения сущности или -1, если её нет.
+     */
+    long getEntityVersion(int id);
+
+    /**
+     * Версия последнего изменения в коллекции задач, эпиков или подзадач; 0 — изменений не было.
+     */
+    long getCollectionVersion(TypeTask type);
+
     /* History */
 
     List<Task> getHistory();
 
     List<Task> getPrioritizedTasks();
+
+    List<Task> getPrioritizedTasks(int offset, int limit);
+
+    List<Task> getPrioritizedTasksAfter(LocalDateTime afterStartTime, int limit);
+
+    /* Scheduling section */
+
+    /**
+     * Первые limit свободных окон промежутка [from, to], вмещающих задачу длительностью duration минут.
+     */
+    List<TimeSlot> findFreeSlots(long duration, LocalDateTime from, LocalDateTime to, int limit);
+
+    /**
+     * Задачи и подзадачи, чей интервал [startTime, endTime] пересекается с окном [from, to].
+     */
+    List<Task> getPrioritizedTasksBetween(LocalDateTime from, LocalDateTime to);
 }
@@ -0,0 +1,47 @@
+package manager;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Свободный промежуток расписания [start, end] (границы включительные): задача
+ * длительностью duration минут помещается в него, если start + duration не позже end.
+ */
+public class TimeSlot {
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+
+    public TimeSlot(LocalDateTime start, LocalDateTime end) {
+        this.start = start;
+        this.end = end;
+    }
+
+    public LocalDateTime getStart() {
+        return start;
+    }
+
+    public LocalDateTime getEnd() {
+        return end;
+    }
+
+    public boolean fits(long duration) {
+        return !start.plusMinutes(duration).isAfter(end);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (!(obj instanceof TimeSlot slot)) return false;
+        return start.equals(slot.start) && end.equals(slot.end);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(start, end);
+    }
+
+    @Override
+    public String toString() {
+        return "TimeSlot{" + start + " — " + end + "}";
+    }
+}
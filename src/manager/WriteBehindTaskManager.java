@@ -0,0 +1,214 @@
+package manager;
+
+import exception.ManagerSaveException;
+import task.Task;
+
+import java.io.File;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Менеджер с отложенной записью: мутации только помечают состояние как изменённое,
+ * а файл перезаписывается одним вызовом save() для целой пачки изменений —
+ * по таймеру или после flushEvery изменений. Если накопилось maxPending несохранённых
+ * изменений, поток, выполняющий мутацию, сам сбрасывает состояние на диск.
+ * При maxPending = 1 менеджер работает синхронно, как FileBackedTaskManager.
+ * <p>
+ * Потокобезопасность даёт LockingTaskManager, как у ConcurrentTaskManager: чтения идут
+ * параллельно под read-lock, мутации — под write-lock, чтения возвращают копии сущностей.
+ * Фоновый сброс держит read-lock той же блокировки, поэтому не блокирует читателей,
+ * а от других сбросов его отделяет отдельный монитор flushLock.
+ * <p>
+ * Сброс по таймеру включается методом start() уже после создания менеджера;
+ * loadFromFile возвращает запущенный менеджер.
+ */
+public class WriteBehindTaskManager extends LockingTaskManager implements AutoCloseable {
+    public static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 1000;
+    public static final int DEFAULT_FLUSH_EVERY = 100;
+    public static final int DEFAULT_MAX_PENDING = 1000;
+
+    private final Storage storage;
+
+    public WriteBehindTaskManager(File file) {
+        this(file, DEFAULT_FLUSH_INTERVAL_MILLIS, DEFAULT_FLUSH_EVERY, DEFAULT_MAX_PENDING);
+    }
+
+    public WriteBehindTaskManager(File file, long flushIntervalMillis, int flushEvery, int maxPending) {
+        this(new Storage(file, new ReentrantReadWriteLock(), flushIntervalMillis, flushEvery, maxPending));
+    }
+
+    private WriteBehindTaskManager(Storage storage) {
+        super(storage, storage.lock);
+        this.storage = storage;
+    }
+
+    /**
+     * Запускает сброс по таймеру. Вызывается после конструктора, чтобы фоновый поток
+     * не увидел недостроенный менеджер; повторный вызов ничего не делает.
+     */
+    public WriteBehindTaskManager start() {
+        storage.start();
+        return this;
+    }
+
+    public static WriteBehindTaskManager synchronous(File file) {
+        return new WriteBehindTaskManager(file, 0, 1, 1);
+    }
+
+    public static WriteBehindTaskManager loadFromFile(File file) {
+        WriteBehindTaskManager manager = new WriteBehindTaskManager(file);
+        if (file.exists() && file.length() > 0) {
+            Map<Integer, Task> loaded = FileBackedTaskManager.readSnapshot(file, SnapshotFormat.CSV,
+                    manager.getRecoveryReport());
+            FileBackedTaskManager.dropOrphanSubtasks(loaded.values(), manager.getRecoveryReport());
+            FileBackedTaskManager.restore(manager.storage, loaded.values());
+        }
+        return manager.start();
+    }
+
+    /**
+     * Записывает все накопленные изменения на диск.
+     */
+    public void flush() {
+        storage.flush();
+    }
+
+    /**
+     * Повреждения, найденные при загрузке снимка; пустой отчёт, если менеджер создан не из файла.
+     */
+    public RecoveryReport getRecoveryReport() {
+        return storage.getRecoveryReport();
+    }
+
+    int getPending() {
+        return compute(lock.readLock(), () -> storage.pending);
+    }
+
+    @Override
+    public void close() {
+        storage.close();
+    }
+
+    /**
+     * Файловый менеджер, чьи точки сохранения только считают изменения. Все его методы
+     * вызываются под блокировкой обёртки, которую он разделяет для сбросов.
+     */
+    private static final class Storage extends FileBackedTaskManager {
+        private final ReadWriteLock lock;
+        private final long flushIntervalMillis;
+        private final int flushEvery;
+        private final int maxPending;
+        private final ScheduledExecutorService flusher;
+        private final Object flushLock = new Object();
+        private int pending;
+        private volatile boolean closed;
+        private boolean started;
+
+        Storage(File file, ReadWriteLock lock, long flushIntervalMillis, int flushEvery, int maxPending) {
+            super(file, SnapshotFormat.CSV, new SynchronizedHistoryManager(Managers.getDefaultHistory()));
+            if (flushEvery <= 0 || maxPending <= 0) {
+                throw new IllegalArgumentException("Размер пачки и очереди должны быть положительными");
+            }
+            this.lock = lock;
+            this.flushIntervalMillis = flushIntervalMillis;
+            this.flushEvery = flushEvery;
+            this.maxPending = maxPending;
+
+            if (maxPending == 1) {
+                this.flusher = null;
+            } else {
+                this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "task-manager-flusher");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+            }
+        }
+
+        void start() {
+            run(lock.writeLock(), () -> {
+                if (started || closed || flusher == null || flushIntervalMillis <= 0) {
+                    return;
+                }
+                started = true;
+                flusher.scheduleWithFixedDelay(this::flushQuietly,
+                        flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+            });
+        }
+
+        @Override
+        void saveTask(Task task) {
+            markDirty();
+        }
+
+        @Override
+        void saveRemoval(int id) {
+            markDirty();
+        }
+
+        @Override
+        void save() {
+            markDirty();
+        }
+
+        void flush() {
+            synchronized (flushLock) {
+                run(lock.readLock(), this::flushLocked);
+            }
+        }
+
+        void close() {
+            boolean wasClosed = compute(lock.writeLock(), () -> {
+                boolean was = closed;
+                closed = true;
+                return was;
+            });
+            if (wasClosed) {
+                return;
+            }
+            if (flusher != null) {
+                flusher.shutdown();
+                try {
+                    flusher.awaitTermination(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            flush();
+        }
+
+        /**
+         * Вызывается под read- или write-lock: pending меняется только под write-lock,
+         * а два сброса под read-lock разведены монитором flushLock.
+         */
+        private void flushLocked() {
+            if (pending == 0) {
+                return;
+            }
+            super.save();
+            pending = 0;
+        }
+
+        /* Вызывается из мутаций, то есть под write-lock */
+        private void markDirty() {
+            pending++;
+            if (closed || pending >= maxPending) {
+                flushLocked();
+            } else if (pending % flushEvery == 0) {
+                flusher.execute(this::flushQuietly);
+            }
+        }
+
+        private void flushQuietly() {
+            try {
+                flush();
+            } catch (ManagerSaveException e) {
+                System.err.println("Ошибка отложенной записи: " + e.getMessage());
+            }
+        }
+    }
+}
@@ -4,14 +4,29 @@ import manager.FileBackedTaskManager;
 import manager.Status;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SequencedCollection;
+import java.util.TreeMap;
 
 public class Epic extends Task {
 
-    private final ArrayList<Subtask> subtasks = new ArrayList<>();
+    /* Подзадачи по id в порядке добавления; меняются только через addSubtask/removeSubtask */
+    private final LinkedHashMap<Integer, Subtask> subtasks = new LinkedHashMap<>();
+    private final SequencedCollection<Subtask> subtasksView =
+            Collections.unmodifiableSequencedCollection(subtasks.sequencedValues());
     private LocalDateTime endTime;
 
+    private final Map<Integer, Contribution> contributions = new HashMap<>();
+    private final TreeMap<LocalDateTime, Integer> startTimes = new TreeMap<>();
+    private final TreeMap<LocalDateTime, Integer> endTimes = new TreeMap<>();
+    private int newCount;
+    private int doneCount;
+    private long totalDuration;
+
     public Epic(String taskName, String taskDescription, int taskId, Status status) {
         super(taskName, taskDescription, taskId, status);
     }
@@ -28,6 +43,18 @@ public class Epic extends Task {
         manager.loadEpic(this);
     }
 
+    /**
+     * Копия эпика вместе с копиями подзадач; агрегаты копии пересчитываются по ним.
+     */
+    @Override
+    public Epic copy() {
+        Epic copy = new Epic(getTaskName(), getTaskDescription(), getTaskId(), getStatus(),
+                getStartTime(), getDuration());
+        copy.endTime = endTime;
+        subtasks.values().forEach(subtask -> copy.addSubtask(subtask.copy()));
+        return copy;
+    }
+
     @Override
     public LocalDateTime getEndTime() {
         return endTime;
@@ -37,45 +64,144 @@ public class Epic extends Task {
         this.endTime = calculateEndTime();
     }
 
-    public int calculateDuration() {
-        if (subtasks.isEmpty()) {
-            return 0;
-        }
-        return Math.toIntExact(subtasks.stream()
-                .mapToLong(Subtask::getDuration)
-                .sum());
+    /**
+     * Добавляет подзадачу и учитывает её в агрегатах эпика за O(log n).
+     */
+    public void addSubtask(Subtask subtask) {
+        subtasks.put(subtask.getTaskId(), subtask);
+        include(subtask);
     }
 
-    public LocalDateTime calculateEndTime() {
-        if (subtasks.isEmpty()) {
-            return null;
-        }
+    /**
+     * Удаляет подзадачу по id за O(1); агрегаты уменьшаются на сохранённый при добавлении вклад,
+     * поэтому подзадачу можно изменить "на месте" до удаления.
+     */
+    public void removeSubtask(Subtask subtask) {
+        subtasks.remove(subtask.getTaskId());
+        exclude(subtask.getTaskId());
+    }
 
-        List<Subtask> subtasksWithTime = subtasks.stream()
-                .filter(subtask -> subtask.getStartTime() != null && subtask.getDuration() > 0)
-                .toList();
+    public void clearSubtasks() {
+        subtasks.clear();
+        resetAggregates();
+    }
 
-        if (subtasksWithTime.isEmpty()) {
-            return null;
+    /**
+     * Пересчитывает агрегаты по текущим подзадачам. Нужен, если подзадачи менялись на месте.
+     */
+    public void recalculate() {
+        resetAggregates();
+        subtasks.values().forEach(this::include);
+    }
+
+    public Status calculateStatus() {
+        int total = contributions.size();
+        if (total == 0 || newCount == total) {
+            return Status.NEW;
+        }
+        if (doneCount == total) {
+            return Status.DONE;
         }
+        return Status.IN_PROGRESS;
+    }
+
+    public int calculateDuration() {
+        return Math.toIntExact(totalDuration);
+    }
 
-        return subtasksWithTime.stream()
-                .map(subtask -> subtask.getStartTime().plusMinutes(subtask.getDuration()))
-                .max(LocalDateTime::compareTo)
-                .orElse(null);
+    public LocalDateTime calculateStartTime() {
+        return startTimes.isEmpty() ? null : startTimes.firstKey();
     }
 
-    public ArrayList<Subtask> getSubtasks() {
-        return subtasks;
+    public LocalDateTime calculateEndTime() {
+        return endTimes.isEmpty() ? null : endTimes.lastKey();
     }
 
-    public void setSubtasks(ArrayList<Subtask> subtasks) {
+    /**
+     * Подзадачи в порядке добавления, только для чтения.
+     */
+    public SequencedCollection<Subtask> getSubtasks() {
+        return subtasksView;
+    }
+
+    public void setSubtasks(Collection<Subtask> subtasks) {
         this.subtasks.clear();
         if (subtasks != null) {
-            List<Subtask> filteredSubtasks = subtasks.stream()
+            subtasks.stream()
                     .filter(sub -> sub.getTaskId() != this.getTaskId())
-                    .toList();
-            this.subtasks.addAll(filteredSubtasks);
+                    .forEach(sub -> this.subtasks.put(sub.getTaskId(), sub));
+        }
+        recalculate();
+    }
+
+    private void include(Subtask subtask) {
+        exclude(subtask.getTaskId());
+
+        LocalDateTime start = subtask.getStartTime();
+        LocalDateTime end = start != null && subtask.getDuration() > 0
+                ? start.plusMinutes(subtask.getDuration())
+                : null;
+        Contribution contribution = new Contribution(subtask.getStatus(), subtask.getDuration(), start, end);
+        contributions.put(subtask.getTaskId(), contribution);
+
+        if (contribution.status == Status.NEW) {
+            newCount++;
+        } else if (contribution.status == Status.DONE) {
+            doneCount++;
+        }
+        totalDuration += contribution.duration;
+        if (start != null) {
+            startTimes.merge(start, 1, Integer::sum);
+        }
+        if (end != null) {
+            endTimes.merge(end, 1, Integer::sum);
+        }
+    }
+
+    private void exclude(int subtaskId) {
+        Contribution contribution = contributions.remove(subtaskId);
+        if (contribution == null) {
+            return;
+        }
+
+        if (contribution.status == Status.NEW) {
+            newCount--;
+        } else if (contribution.status == Status.DONE) {
+            doneCount--;
+        }
+        totalDuration -= contribution.duration;
+        if (contribution.start != null) {
+            decrement(startTimes, contribution.start);
+        }
+        if (contribution.end != null) {
+            decrement(endTimes, contribution.end);
+        }
+    }
+
+    private static void decrement(TreeMap<LocalDateTime, Integer> counts, LocalDateTime key) {
+        counts.computeIfPresent(key, (k, count) -> count > 1 ? count - 1 : null);
+    }
+
+    private void resetAggregates() {
+        contributions.clear();
+        startTimes.clear();
+        endTimes.clear();
+        newCount = 0;
+        doneCount = 0;
+        totalDuration = 0;
+    }
+
+    private static class Contribution {
+        final Status status;
+        final long duration;
+        final LocalDateTime start;
+        final LocalDateTime end;
+
+        Contribution(Status status, long duration, LocalDateTime start, LocalDateTime end) {
+            this.status = status;
+            this.duration = duration;
+            this.start = start;
+            this.end = end;
         }
     }
 
@@ -86,7 +212,7 @@ public class Epic extends Task {
                 ", taskDescription='" + getTaskDescription() + '\'' +
                 ", taskId=" + getTaskId() +
                 ", status=" + getStatus() +
-                ", subtasks=" + subtasks +
+                ", subtasks=" + subtasks.values() +
                 '}';
     }
 }
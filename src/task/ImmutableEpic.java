@@ -0,0 +1,131 @@
+package task;
+
+import manager.FileBackedTaskManager;
+import manager.Status;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * Неизменяемый снимок эпика для чтений потокобезопасных менеджеров: только поля самого эпика,
+ * его статус и время, без копирования подзадач, поэтому снимок стоит O(1). getSubtasks() у снимка
+ * пуст — подзадачи эпика читаются через getEpicSubtasks() менеджера. Равен исходному эпику с тем же id.
+ */
+public final class ImmutableEpic extends Epic {
+    private final LocalDateTime endTime;
+    private final int totalDuration;
+
+    public ImmutableEpic(Epic original) {
+        super(original.getTaskName(), original.getTaskDescription(), original.getTaskId(),
+                original.getStatus(), original.getStartTime(), original.getDuration());
+        this.endTime = original.getEndTime();
+        this.totalDuration = original.calculateDuration();
+    }
+
+    /**
+     * Копировать неизменяемый снимок незачем.
+     */
+    @Override
+    public ImmutableEpic copy() {
+        return this;
+    }
+
+    @Override
+    public LocalDateTime getEndTime() {
+        return endTime;
+    }
+
+    @Override
+    public Status calculateStatus() {
+        return getStatus();
+    }
+
+    @Override
+    public int calculateDuration() {
+        return totalDuration;
+    }
+
+    @Override
+    public LocalDateTime calculateStartTime() {
+        return getStartTime();
+    }
+
+    @Override
+    public LocalDateTime calculateEndTime() {
+        return endTime;
+    }
+
+    @Override
+    public void loadToManager(FileBackedTaskManager manager) {
+        throw immutable();
+    }
+
+    @Override
+    public void setTaskName(String taskName) {
+        throw immutable();
+    }
+
+    @Override
+    public void setTaskDescription(String taskDescription) {
+        throw immutable();
+    }
+
+    @Override
+    public void setTaskId(int taskId) {
+        throw immutable();
+    }
+
+    @Override
+    public void setStatus(Status status) {
+        throw immutable();
+    }
+
+    @Override
+    public void setStartTime(LocalDateTime startTime) {
+        throw immutable();
+    }
+
+    @Override
+    public void setDuration(long duration) {
+        throw immutable();
+    }
+
+    @Override
+    public void setEndTime() {
+        throw immutable();
+    }
+
+    @Override
+    public void addSubtask(Subtask subtask) {
+        throw immutable();
+    }
+
+    @Override
+    public void removeSubtask(Subtask subtask) {
+        throw immutable();
+    }
+
+    @Override
+    public void clearSubtasks() {
+        throw immutable();
+    }
+
+    @Override
+    public void recalculate() {
+        throw immutable();
+    }
+
+    @Override
+    public void setSubtasks(Collection<Subtask> subtasks) {
+        throw immutable();
+    }
+
+    @Override
+    Class<? extends Task> entityType() {
+        return Epic.class;
+    }
+
+    private static UnsupportedOperationException immutable() {
+        return new UnsupportedOperationException("Снимок эпика не может быть изменён");
+    }
+}
@@ -0,0 +1,65 @@
+package task;
+
+import manager.Status;
+
+import java.time.LocalDateTime;
+
+/**
+ * Неизменяемая копия задачи для истории просмотров. Один и тот же экземпляр
+ * отдаётся всем читателям снимка истории, поэтому сеттеры запрещены.
+ * Равна исходной задаче с тем же id.
+ */
+public final class ImmutableTask extends Task {
+
+    public ImmutableTask(Task original) {
+        super(original.getTaskName(), original.getTaskDescription(), original.getTaskId(),
+                original.getStatus(), original.getStartTime(), original.getDuration());
+    }
+
+    /**
+     * Копировать неизменяемую задачу незачем.
+     */
+    @Override
+    public ImmutableTask copy() {
+        return this;
+    }
+
+    @Override
+    public void setTaskName(String taskName) {
+        throw immutable();
+    }
+
+    @Override
+    public void setTaskDescription(String taskDescription) {
+        throw immutable();
+    }
+
+    @Override
+    public void setTaskId(int taskId) {
+        throw immutable();
+    }
+
+    @Override
+    public void setStatus(Status status) {
+        throw immutable();
+    }
+
+    @Override
+    public void setStartTime(LocalDateTime startTime) {
+        throw immutable();
+    }
+
+    @Override
+    public void setDuration(long duration) {
+        throw immutable();
+    }
+
+    @Override
+    Class<? extends Task> entityType() {
+        return Task.class;
+    }
+
+    private static UnsupportedOperationException immutable() {
+        return new UnsupportedOperationException("Задача из истории не может быть изменена");
+    }
+}
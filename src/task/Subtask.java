@@ -36,6 +36,12 @@ public class Subtask extends Task {
         manager.loadSubtask(this);
     }
 
+    @Override
+    public Subtask copy() {
+        return new Subtask(getTaskName(), getTaskDescription(), getTaskId(), getStatus(), epicId,
+                getStartTime(), getDuration());
+    }
+
     @Override
     public String toString() {
         return "task.Subtask{" +
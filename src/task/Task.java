@@ -40,6 +40,13 @@ public class Task {
         manager.loadTask(this);
     }
 
+    /**
+     * Независимая копия задачи: менеджер может менять оригинал, не затрагивая копию.
+     */
+    public Task copy() {
+        return new Task(taskName, taskDescription, taskId, status, startTime, duration);
+    }
+
     public String getTaskName() {
         return taskName;
     }
@@ -96,9 +103,12 @@ public class Task {
     @Override
     public boolean equals(Object obj) {
         if (this == obj) return true;
-        if (obj == null || getClass() != obj.getClass()) return false;
-        Task task = (Task) obj;
-        return taskId == task.taskId;
+        if (!(obj instanceof Task task)) return false;
+        return entityType() == task.entityType() && taskId == task.taskId;
+    }
+
+    Class<? extends Task> entityType() {
+        return getClass();
     }
 
     @Override
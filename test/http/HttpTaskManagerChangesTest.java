@@ -0,0 +1,67 @@
+package http;
+
+import manager.ChangeEvent;
+import manager.ChangeSet;
+import manager.Status;
+import org.junit.jupiter.api.Test;
+import task.Task;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HttpTaskManagerChangesTest extends HttpTaskServerTestBase {
+
+    @Test
+    void testChangesSinceVersion() throws IOException, InterruptedException {
+        Task first = createTask(new Task("First", "Desc", 0, Status.NEW));
+
+        HttpResponse<String> snapshotResponse = getChanges("");
+        assertEquals(200, snapshotResponse.statusCode(), "Неверный статус код полного снимка");
+        ChangeSet snapshot = gson.fromJson(snapshotResponse.body(), ChangeSet.class);
+        assertEquals(1, snapshot.getChanges().size());
+
+        HttpRequest delete = HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:8080/tasks/task/" + first.getTaskId()))
+                .DELETE()
+                .build();
+        client.send(delete, HttpResponse.BodyHandlers.ofString());
+
+        ChangeSet delta = gson.fromJson(getChanges("?since=" + snapshot.getToken()).body(), ChangeSet.class);
+        assertEquals(1, delta.getChanges().size(), "В дельте должно быть только удаление");
+        assertEquals(ChangeEvent.Type.DELETED, delta.getChanges().getFirst().getType());
+        assertEquals(first.getTaskId(), delta.getChanges().getFirst().getId());
+
+        String epoch = delta.getToken().substring(0, delta.getToken().indexOf(':'));
+        assertEquals(410, getChanges("?since=" + epoch + ":" + (delta.getVersion() + 100)).statusCode(),
+                "Версия из будущего требует полной синхронизации");
+        String otherEpoch = Long.toHexString(Long.parseUnsignedLong(epoch, 16) + 1);
+        assertEquals(410, getChanges("?since=" + otherEpoch + ":" + delta.getVersion()).statusCode(),
+                "Токен другого запуска сервера требует полной синхронизации");
+        assertEquals(400, getChanges("?since=abc").statusCode());
+        assertEquals(400, getChanges("?since=" + delta.getVersion()).statusCode(),
+                "Версия без эпохи не принимается");
+    }
+
+    private HttpResponse<String> getChanges(String query) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:8080/tasks/changes" + query))
+                .GET()
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private Task createTask(Task task) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:8080/tasks/task/"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(gson.toJson(task)))
+                .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        assertEquals(201, response.statusCode(), "Не удалось создать задачу");
+        return gson.fromJson(response.body(), Task.class);
+    }
+}
@@ -0,0 +1,130 @@
+package http;
+
+import manager.ChangeEvent;
+import manager.ChangeSet;
+import manager.Status;
+import org.junit.jupiter.api.Test;
+import task.Task;
+import task.TypeTask;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HttpTaskManagerEventsTest extends HttpTaskServerTestBase {
+
+    @Test
+    void testStreamReplaysMissedEventsAndDeliversNewOnes() throws IOException, InterruptedException {
+        createTask(new Task("First", "Desc", 0, Status.NEW));
+        String epoch = currentEpoch();
+
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:8080/tasks/events?since=" + epoch + ":0"))
+                .GET()
+                .build();
+        HttpResponse<InputStream> response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        assertEquals(200, response.statusCode(), "Неверный статус код подписки");
+        assertTrue(response.headers().firstValue("Content-Type").orElse("").startsWith("text/event-stream"));
+
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(response.body(), StandardCharsets.UTF_8))) {
+            assertEquals("id: " + epoch + ":1", readLine(reader, "id: "), "id события должен нести эпоху");
+            ChangeEvent replayed = readEvent(reader);
+            assertEquals(1, replayed.getVersion());
+            assertEquals(ChangeEvent.Type.ADDED, replayed.getType());
+            assertEquals(TypeTask.TASK, replayed.getEntity());
+            assertEquals("First", replayed.getSnapshot().getTaskName());
+
+            Task second = createTask(new Task("Second", "Desc", 0, Status.NEW));
+            ChangeEvent live = readEvent(reader);
+            assertEquals(2, live.getVersion(), "Новое событие должно прийти без повторного запроса");
+            assertEquals(second.getTaskId(), live.getId());
+        }
+    }
+
+    @Test
+    void testLastEventIdFromAnotherEpochResets() throws IOException, InterruptedException {
+        createTask(new Task("First", "Desc", 0, Status.NEW));
+        String epoch = currentEpoch();
+        String otherEpoch = Long.toHexString(Long.parseUnsignedLong(epoch, 16) + 1);
+
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:8080/tasks/events"))
+                .header("Last-Event-ID", otherEpoch + ":1")
+                .GET()
+                .build();
+        HttpResponse<InputStream> response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        assertEquals(200, response.statusCode(), "Неверный статус код подписки");
+
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(response.body(), StandardCharsets.UTF_8))) {
+            assertEquals("id: " + epoch + ":1", readLine(reader, "id: "), "reset должен выдать id текущей эпохи");
+            assertEquals("event: reset", readLine(reader, "event: "),
+                    "id прошлого запуска сервера требует полной синхронизации");
+        }
+    }
+
+    @Test
+    void testBareVersionIsBadRequest() throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:8080/tasks/events"))
+                .header("Last-Event-ID", "1")
+                .GET()
+                .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        assertEquals(400, response.statusCode(), "Версия без эпохи не принимается");
+    }
+
+    @Test
+    void testInvalidSinceIsBadRequest() throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:8080/tasks/events?since=abc"))
+                .GET()
+                .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        assertEquals(400, response.statusCode());
+    }
+
+    private ChangeEvent readEvent(BufferedReader reader) throws IOException {
+        return gson.fromJson(readLine(reader, "data: ").substring("data: ".length()), ChangeEvent.class);
+    }
+
+    private String readLine(BufferedReader reader, String prefix) throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.startsWith(prefix)) {
+                return line;
+            }
+        }
+        fail("Поток событий закрылся раньше времени");
+        return null;
+    }
+
+    private String currentEpoch() throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:8080/tasks/changes"))
+                .GET()
+                .build();
+        String token = gson.fromJson(client.send(request, HttpResponse.BodyHandlers.ofString()).body(),
+                ChangeSet.class).getToken();
+        return token.substring(0, token.indexOf(':'));
+    }
+
+    private Task createTask(Task task) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:8080/tasks/task/"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(gson.toJson(task)))
+                .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        assertEquals(201, response.statusCode(), "Не удалось создать задачу");
+        return gson.fromJson(response.body(), Task.class);
+    }
+}
@@ -1,6 +1,7 @@
 package http;
 
 import manager.Status;
+import manager.TimeSlot;
 import org.junit.jupiter.api.Test;
 import task.Task;
 
@@ -55,6 +56,55 @@ class HttpTaskManagerPriorityTest extends HttpTaskServerTestBase {
         assertEquals(0, prioritizedTasks.length, "Список приоритетных задач должен быть пустым");
     }
 
+    @Test
+    void testGetPrioritizedTasksInWindow() throws IOException, InterruptedException {
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 10, 0);
+        createTask(gson.toJson(new Task("Morning", "Desc", 0, Status.NEW, start, 60)));
+        createTask(gson.toJson(new Task("Evening", "Desc", 0, Status.NEW, start.plusHours(8), 60)));
+
+        HttpResponse<String> response = getPrioritized("?from=" + start.plusMinutes(30) + "&to=" + start.plusHours(2));
+        assertEquals(200, response.statusCode(), "Неверный статус код для окна времени");
+        Task[] tasks = gson.fromJson(response.body(), Task[].class);
+        assertEquals(1, tasks.length, "В окно должна попасть одна задача");
+        assertEquals("Morning", tasks[0].getTaskName());
+
+        assertEquals(400, getPrioritized("?from=" + start).statusCode(), "Без границы to ожидается 400");
+        assertEquals(400, getPrioritized("?from=" + start.plusHours(1) + "&to=" + start).statusCode(),
+                "Перевёрнутое окно должно давать 400");
+    }
+
+    @Test
+    void testFindFreeSlotAndAutoPlaceTask() throws IOException, InterruptedException {
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 9, 0);
+        LocalDateTime end = start.plusHours(4);
+        createTask(gson.toJson(new Task("Busy", "Desc", 0, Status.NEW, start, 60)));
+
+        HttpResponse<String> slotsResponse = getPrioritized("/slots?duration=30&from=" + start + "&to=" + end);
+        assertEquals(200, slotsResponse.statusCode(), "Неверный статус код для свободных окон");
+        TimeSlot[] slots = gson.fromJson(slotsResponse.body(), TimeSlot[].class);
+        assertEquals(1, slots.length, "По умолчанию возвращается одно окно");
+        assertEquals(start.plusMinutes(61), slots[0].getStart());
+        assertEquals(400, getPrioritized("/slots?from=" + start + "&to=" + end).statusCode(),
+                "Без длительности ожидается 400");
+
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:8080/tasks/task/?from=" + start + "&to=" + end))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(gson.toJson(new Task("Untimed", "Desc"))))
+                .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        assertEquals(201, response.statusCode(), "Задача без времени должна быть размещена");
+        assertEquals(start.plusMinutes(61), gson.fromJson(response.body(), Task.class).getStartTime());
+    }
+
+    private HttpResponse<String> getPrioritized(String query) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:8080/tasks/prioritized" + query))
+                .GET()
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
     private HttpResponse<String> createTask(String taskJson) throws IOException, InterruptedException {
         HttpRequest request = HttpRequest.newBuilder()
                 .uri(URI.create("http://localhost:8080/tasks/task/"))
@@ -117,9 +117,55 @@ class HttpTaskManagerSubtasksTest extends HttpTaskServerTestBase {
         assertEquals(0, subtasksAfter.length, "Подзадача не была удалена");
     }
 
+    @Test
+    void testFilterSubtasksByStatusAndEpic() throws IOException, InterruptedException {
+        int epicId = createEpic();
+        int otherEpicId = createEpic();
+        createSubtask(gson.toJson(new Subtask("New", "Desc", 0, Status.NEW, epicId)));
+        createSubtask(gson.toJson(new Subtask("Done", "Desc", 0, Status.DONE, epicId)));
+        createSubtask(gson.toJson(new Subtask("Other", "Desc", 0, Status.DONE, otherEpicId)));
+
+        Subtask[] done = getSubtasks("?status=done");
+        assertEquals(2, done.length, "Фильтр по статусу вернул лишние подзадачи");
+
+        Subtask[] epicDone = getSubtasks("?epic=" + epicId + "&status=DONE");
+        assertEquals(1, epicDone.length, "Фильтр по эпику и статусу вернул лишние подзадачи");
+        assertEquals("Done", epicDone[0].getTaskName());
+
+        HttpRequest badRequest = HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:8080/tasks/subtask/?status=UNKNOWN"))
+                .GET()
+                .build();
+        HttpResponse<String> response = client.send(badRequest, HttpResponse.BodyHandlers.ofString());
+        assertEquals(400, response.statusCode(), "Неизвестный статус должен давать 400");
+    }
+
+    @Test
+    void testPostErrorStatuses() throws IOException, InterruptedException {
+        int epicId = createEpic();
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 9, 0);
+        createSubtask(gson.toJson(new Subtask("Busy", "Desc", 0, Status.NEW, epicId, start, 60)));
+
+        assertEquals(404, createSubtask(gson.toJson(new Subtask("Orphan", "Desc", 0, Status.NEW, 999)))
+                .statusCode(), "Несуществующий эпик должен давать 404");
+        assertEquals(406, createSubtask(gson.toJson(new Subtask("Overlap", "Desc", 0, Status.NEW, epicId,
+                start.plusMinutes(30), 30))).statusCode(), "Пересечение по времени должно давать 406");
+
+        String untimed = gson.toJson(new Subtask("Untimed", "Desc", 0, Status.NEW, epicId, null, 30));
+        assertEquals(400, createSubtask(untimed, "?from=" + start).statusCode(),
+                "Без границы to ожидается 400");
+        assertEquals(406, createSubtask(untimed, "?from=" + start + "&to=" + start.plusMinutes(60)).statusCode(),
+                "Отсутствие свободного окна должно давать 406");
+    }
+
     private HttpResponse<String> createSubtask(String subtaskJson) throws IOException, InterruptedException {
+        return createSubtask(subtaskJson, "");
+    }
+
+    private HttpResponse<String> createSubtask(String subtaskJson, String query)
+            throws IOException, InterruptedException {
         HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create("http://localhost:8080/tasks/subtask/"))
+                .uri(URI.create("http://localhost:8080/tasks/subtask/" + query))
                 .header("Content-Type", "application/json")
                 .POST(HttpRequest.BodyPublishers.ofString(subtaskJson))
                 .build();
@@ -127,8 +173,12 @@ class HttpTaskManagerSubtasksTest extends HttpTaskServerTestBase {
     }
 
     private Subtask[] getAllSubtasks() throws IOException, InterruptedException {
+        return getSubtasks("");
+    }
+
+    private Subtask[] getSubtasks(String query) throws IOException, InterruptedException {
         HttpRequest getRequest = HttpRequest.newBuilder()
-                .uri(URI.create("http://localhost:8080/tasks/subtask/"))
+                .uri(URI.create("http://localhost:8080/tasks/subtask/" + query))
                 .GET()
                 .build();
         HttpResponse<String> response = client.send(getRequest, HttpResponse.BodyHandlers.ofString());
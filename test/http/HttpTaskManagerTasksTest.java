@@ -1,5 +1,6 @@
 package http;
 
+import manager.ConcurrentTaskManager;
 import manager.Status;
 import org.junit.jupiter.api.Test;
 import task.Task;
@@ -9,6 +10,8 @@ import java.net.URI;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -178,4 +181,175 @@ class HttpTaskManagerTasksTest extends HttpTaskServerTestBase {
         Task[] tasksAfter = gson.fromJson(getAfterResponse.body(), Task[].class);
         assertEquals(0, tasksAfter.length, "Задача не была удалена");
     }
-}
\ No newline at end of file
+
+    @Test
+    void testGetAllTasksIsStreamed() throws IOException, InterruptedException {
+        for (int i = 0; i < 3; i++) {
+            Task task = new Task("Task " + i, "Description", 0, Status.NEW);
+            HttpRequest postRequest = HttpRequest.newBuilder()
+                    .uri(URI.create("http://localhost:8080/tasks/task/"))
+                    .POST(HttpRequest.BodyPublishers.ofString(gson.toJson(task)))
+                    .build();
+            client.send(postRequest, HttpResponse.BodyHandlers.ofString());
+        }
+
+        HttpRequest getRequest = HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:8080/tasks/task/"))
+                .GET()
+                .build();
+        HttpResponse<String> getResponse = client.send(getRequest, HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(200, getResponse.statusCode());
+        assertEquals("chunked", getResponse.headers().firstValue("Transfer-Encoding").orElse(null),
+                "Список должен передаваться потоково");
+        Task[] tasks = gson.fromJson(getResponse.body(), Task[].class);
+        assertEquals(3, tasks.length, "Некорректное количество задач");
+    }
+
+    @Test
+    void testCompactJsonByDefaultAndPrettyOnRequest() throws IOException, InterruptedException {
+        Task task = new Task("Task", "Description", 0, Status.NEW);
+        HttpRequest postRequest = HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:8080/tasks/task/"))
+                .POST(HttpRequest.BodyPublishers.ofString(gson.toJson(task)))
+                .build();
+        HttpResponse<String> postResponse = client.send(postRequest, HttpResponse.BodyHandlers.ofString());
+        assertFalse(postResponse.body().contains("\n"), "По умолчанию ответ должен быть компактным");
+
+        HttpRequest prettyRequest = HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:8080/tasks/task/"))
+                .header("Accept", "application/json;pretty")
+                .GET()
+                .build();
+        HttpResponse<String> prettyResponse = client.send(prettyRequest, HttpResponse.BodyHandlers.ofString());
+        assertTrue(prettyResponse.body().contains("\n"), "С Accept pretty ответ должен быть форматированным");
+    }
+
+    @Test
+    void testGetTasksPage() throws IOException, InterruptedException {
+        for (int i = 0; i < 5; i++) {
+            Task task = new Task("Task " + i, "Description", 0, Status.NEW);
+            HttpRequest postRequest = HttpRequest.newBuilder()
+                    .uri(URI.create("http://localhost:8080/tasks/task/"))
+                    .POST(HttpRequest.BodyPublishers.ofString(gson.toJson(task)))
+                    .build();
+            client.send(postRequest, HttpResponse.BodyHandlers.ofString());
+        }
+
+        HttpRequest pageRequest = HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:8080/tasks/task/?offset=1&limit=2"))
+                .GET()
+                .build();
+        HttpResponse<String> pageResponse = client.send(pageRequest, HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, pageResponse.statusCode());
+        Task[] page = gson.fromJson(pageResponse.body(), Task[].class);
+        assertEquals(2, page.length, "Некорректный размер страницы");
+        assertEquals("Task 1", page[0].getTaskName());
+
+        HttpRequest cursorRequest = HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:8080/tasks/task/?after=" + page[1].getTaskId() + "&limit=10"))
+                .GET()
+                .build();
+        HttpResponse<String> cursorResponse = client.send(cursorRequest, HttpResponse.BodyHandlers.ofString());
+        Task[] rest = gson.fromJson(cursorResponse.body(), Task[].class);
+        assertEquals(2, rest.length, "Курсор должен вернуть оставшиеся задачи");
+
+        HttpRequest badRequest = HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:8080/tasks/task/?limit=abc"))
+                .GET()
+                .build();
+        assertEquals(400, client.send(badRequest, HttpResponse.BodyHandlers.ofString()).statusCode());
+    }
+
+    @Test
+    void testConditionalGetReturnsNotModifiedUntilChange() throws IOException, InterruptedException {
+        HttpRequest create = HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:8080/tasks/task/"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(gson.toJson(new Task("Task", "Desc"))))
+                .build();
+        Task task = gson.fromJson(client.send(create, HttpResponse.BodyHandlers.ofString()).body(), Task.class);
+
+        HttpResponse<String> list = conditionalGet("/tasks/task/", null);
+        String listTag = list.headers().firstValue("ETag").orElseThrow();
+        HttpResponse<String> entity = conditionalGet("/tasks/task/" + task.getTaskId(), null);
+        String entityTag = entity.headers().firstValue("ETag").orElseThrow();
+        String epicsTag = conditionalGet("/tasks/epic/", null).headers().firstValue("ETag").orElseThrow();
+        String prioritizedTag = conditionalGet("/tasks/prioritized", null).headers().firstValue("ETag").orElseThrow();
+
+        HttpResponse<String> unchanged = conditionalGet("/tasks/task/", listTag);
+        assertEquals(304, unchanged.statusCode(), "Неизменённый список должен давать 304");
+        assertTrue(unchanged.body().isEmpty(), "Ответ 304 не содержит тела");
+        assertEquals(304, conditionalGet("/tasks/task/" + task.getTaskId(), entityTag).statusCode());
+        assertEquals(304, conditionalGet("/tasks/prioritized", prioritizedTag).statusCode());
+
+        HttpResponse<String> invalid = conditionalGet("/tasks/task/?status=BOGUS", listTag);
+        assertEquals(400, invalid.statusCode(), "Некорректный запрос не должен превращаться в 304");
+        assertTrue(invalid.headers().firstValue("ETag").isEmpty(), "Ответ с ошибкой не несёт ETag");
+        assertEquals(400, conditionalGet("/tasks/prioritized?limit=abc", prioritizedTag).statusCode());
+
+        task.setStatus(Status.DONE);
+        HttpRequest update = HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:8080/tasks/task/"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(gson.toJson(task)))
+                .build();
+        client.send(update, HttpResponse.BodyHandlers.ofString());
+
+        HttpResponse<String> changed = conditionalGet("/tasks/task/", listTag);
+        assertEquals(200, changed.statusCode(), "После изменения список отдаётся заново");
+        assertNotEquals(listTag, changed.headers().firstValue("ETag").orElseThrow());
+        assertEquals(200, conditionalGet("/tasks/task/" + task.getTaskId(), entityTag).statusCode());
+        assertEquals(200, conditionalGet("/tasks/prioritized", prioritizedTag).statusCode());
+        assertEquals(304, conditionalGet("/tasks/epic/", epicsTag).statusCode(),
+                "Изменение задачи не меняет версию списка эпиков");
+    }
+
+    @Test
+    void testNotModifiedListIsNotFetched() throws IOException, InterruptedException {
+        AtomicInteger listReads = new AtomicInteger();
+        ConcurrentTaskManager counting = new ConcurrentTaskManager() {
+            @Override
+            public List<Task> getTasks(int offset, int limit) {
+                listReads.incrementAndGet();
+                return super.getTasks(offset, limit);
+            }
+
+            @Override
+            public List<Task> getPrioritizedTasksAfter(LocalDateTime afterStartTime, int limit) {
+                listReads.incrementAndGet();
+                return super.getPrioritizedTasksAfter(afterStartTime, limit);
+            }
+        };
+        taskServer.stop();
+        taskServer = new HttpTaskServer(counting);
+        taskServer.start();
+        counting.addTask(new Task("Task", "Desc", 0, Status.NEW, LocalDateTime.of(2024, 3, 1, 9, 0), 30));
+
+        String listTag = conditionalGet("/tasks/task/?offset=0&limit=10", null).headers().firstValue("ETag").orElseThrow();
+        String prioritizedPage = "/tasks/prioritized?after=2024-01-01T00:00&limit=10";
+        String prioritizedTag = conditionalGet(prioritizedPage, null).headers().firstValue("ETag").orElseThrow();
+        assertEquals(2, listReads.get());
+
+        assertEquals(304, conditionalGet("/tasks/task/?offset=0&limit=10", listTag).statusCode());
+        assertEquals(304, conditionalGet(prioritizedPage, prioritizedTag).statusCode());
+        assertEquals(2, listReads.get(), "Ответ 304 не должен выбирать список");
+
+        assertEquals(400, conditionalGet("/tasks/task/?offset=-1", listTag).statusCode(),
+                "Отрицательный offset отвергается до сравнения ETag");
+        assertEquals(400, conditionalGet("/tasks/prioritized?from=2024-03-02T00:00&to=2024-03-01T00:00",
+                prioritizedTag).statusCode(), "Перевёрнутый промежуток отвергается до сравнения ETag");
+        assertEquals(400, conditionalGet("/tasks/prioritized/slots?duration=30&from=2024-03-01T00:00",
+                prioritizedTag).statusCode(), "Поиск окон без конца промежутка отвергается до сравнения ETag");
+    }
+
+    private HttpResponse<String> conditionalGet(String path, String etag) throws IOException, InterruptedException {
+        HttpRequest.Builder builder = HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:8080" + path))
+                .GET();
+        if (etag != null) {
+            builder.header("If-None-Match", etag);
+        }
+        return client.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
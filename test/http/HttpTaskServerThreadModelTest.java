@@ -0,0 +1,64 @@
+package http;
+
+import com.google.gson.Gson;
+import manager.ConcurrentTaskManager;
+import manager.Managers;
+import manager.Status;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import task.Task;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HttpTaskServerThreadModelTest {
+    private static final int PORT = 8081;
+
+    private final Gson gson = Managers.getGson();
+    private final HttpClient client = HttpClient.newHttpClient();
+    private HttpTaskServer taskServer;
+
+    @AfterEach
+    public void shutDown() {
+        if (taskServer != null) {
+            taskServer.stop();
+        }
+    }
+
+    @Test
+    void testVirtualThreadServerHandlesParallelRequests() throws IOException {
+        assertParallelPostsSucceed(ThreadModel.VIRTUAL);
+    }
+
+    @Test
+    void testPoolServerHandlesParallelRequests() throws IOException {
+        assertParallelPostsSucceed(ThreadModel.POOL);
+    }
+
+    private void assertParallelPostsSucceed(ThreadModel threadModel) throws IOException {
+        ConcurrentTaskManager manager = new ConcurrentTaskManager();
+        taskServer = new HttpTaskServer(manager, PORT, 64, threadModel, 4);
+        taskServer.start();
+
+        List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            Task task = new Task("Task " + i, "Description", 0, Status.NEW);
+            HttpRequest request = HttpRequest.newBuilder()
+                    .uri(URI.create("http://localhost:" + PORT + "/tasks/task/"))
+                    .POST(HttpRequest.BodyPublishers.ofString(gson.toJson(task)))
+                    .build();
+            responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.ofString()));
+        }
+
+        responses.forEach(response -> assertEquals(201, response.join().statusCode()));
+        assertEquals(50, manager.getTasks().size(), "Все задачи должны быть добавлены");
+    }
+}
@@ -0,0 +1,36 @@
+package http;
+
+import http.handlers.Route;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RouteTest {
+    private final Route route = new Route("/tasks/task/");
+
+    @Test
+    void testMatchesBasePath() {
+        assertTrue(route.matchesBase("/tasks/task/"));
+        assertFalse(route.matchesBase("/tasks/task"));
+        assertFalse(route.matchesBase("/tasks/task/1"));
+    }
+
+    @Test
+    void testExtractsId() {
+        assertEquals(42, route.matchId("/tasks/task/42"));
+        assertEquals(0, route.matchId("/tasks/task/0"));
+    }
+
+    @Test
+    void testRejectsNonNumericOrForeignPaths() {
+        assertEquals(Route.NO_MATCH, route.matchId("/tasks/task/"));
+        assertEquals(Route.NO_MATCH, route.matchId("/tasks/task/abc"));
+        assertEquals(Route.NO_MATCH, route.matchId("/tasks/task/1/2"));
+        assertEquals(Route.NO_MATCH, route.matchId("/tasks/epic/1"));
+    }
+
+    @Test
+    void testIdOverflowIsInvalid() {
+        assertEquals(Route.INVALID_ID, route.matchId("/tasks/task/99999999999999999999"));
+    }
+}
@@ -0,0 +1,64 @@
+package manager;
+
+import org.junit.jupiter.api.Test;
+import task.Task;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ChangeFeedTest {
+
+    @Test
+    public void eventsAfterVersionAreReturnedInOrder() {
+        ChangeFeed feed = new ChangeFeed(8);
+        Task task = new Task("Task", "Desc", 1, Status.NEW);
+        feed.append(ChangeEvent.Type.ADDED, task);
+        feed.append(ChangeEvent.Type.UPDATED, task);
+        feed.append(ChangeEvent.Type.DELETED, task);
+
+        List<ChangeEvent> events = feed.since(1);
+        assertEquals(2, events.size());
+        assertEquals(2, events.get(0).getVersion());
+        assertEquals(ChangeEvent.Type.UPDATED, events.get(0).getType());
+        assertNull(events.get(1).getSnapshot(), "У удаления нет снимка состояния");
+        assertTrue(feed.since(3).isEmpty());
+    }
+
+    @Test
+    public void evictedVersionsRequireResync() {
+        ChangeFeed feed = new ChangeFeed(4);
+        Task task = new Task("Task", "Desc", 1, Status.NEW);
+        for (int i = 0; i < 10; i++) {
+            feed.append(ChangeEvent.Type.UPDATED, task);
+        }
+
+        assertEquals(4, feed.since(6).size());
+        assertNull(feed.since(5), "События 6..10 ещё в буфере, а 5 уже вытеснено");
+        assertNull(feed.since(11), "Версия из будущего означает перезапуск менеджера");
+    }
+
+    @Test
+    public void snapshotIsNotAffectedByLaterChanges() throws InterruptedException {
+        ChangeFeed feed = new ChangeFeed(4);
+        Task task = new Task("Task", "Desc", 1, Status.NEW);
+        feed.append(ChangeEvent.Type.ADDED, task);
+        task.setStatus(Status.DONE);
+
+        assertEquals(Status.NEW, feed.since(0).getFirst().getSnapshot().getStatus());
+        assertTrue(feed.await(1, 10, TimeUnit.MILLISECONDS).isEmpty(), "Без новых событий ожидание истекает");
+    }
+
+    @Test
+    public void tokensAreBoundToTheirEpoch() {
+        ChangeFeed feed = new ChangeFeed(8);
+        ChangeFeed restarted = new ChangeFeed(8);
+
+        assertEquals(5, feed.versionOf(feed.token(5)));
+        assertEquals(ChangeFeed.OTHER_EPOCH, restarted.versionOf(feed.token(5)));
+        assertThrows(IllegalArgumentException.class, () -> feed.versionOf("5"));
+        assertThrows(IllegalArgumentException.class, () -> feed.versionOf("zz:5"));
+        assertThrows(IllegalArgumentException.class, () -> feed.versionOf(feed.token(-1)));
+    }
+}
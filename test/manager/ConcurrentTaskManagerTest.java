@@ -0,0 +1,101 @@
+package manager;
+
+import task.Epic;
+import task.Subtask;
+import task.Task;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConcurrentTaskManagerTest extends manager.TaskManagerTest<ConcurrentTaskManager> {
+
+    @Override
+    protected ConcurrentTaskManager createTaskManager() {
+        return new ConcurrentTaskManager();
+    }
+
+    @Test
+    @DisplayName("Параллельное добавление задач выдаёт уникальные ID")
+    void testConcurrentAddGeneratesUniqueIds() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<Task>> futures = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            int number = i;
+            futures.add(executor.submit(() -> taskManager.addTask(new Task("Task " + number, "Description"))));
+        }
+
+        Set<Integer> ids = new HashSet<>();
+        for (Future<Task> future : futures) {
+            ids.add(future.get().getTaskId());
+        }
+        executor.shutdown();
+
+        assertEquals(1000, ids.size());
+        assertEquals(1000, taskManager.getTasks().size());
+    }
+
+    @Test
+    @DisplayName("Статус эпика согласован после параллельных обновлений подзадач")
+    void testConcurrentSubtaskUpdatesKeepEpicStatusConsistent() throws Exception {
+        Epic epic = taskManager.addEpic(new Epic("Epic", "Description"));
+        List<Subtask> subtasks = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            subtasks.add(taskManager.addSubtask(new Subtask("Subtask " + i, "Description", epic.getTaskId())));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = subtasks.stream()
+                .map(subtask -> executor.submit(() -> {
+                    Subtask done = new Subtask(subtask.getTaskName(), subtask.getTaskDescription(),
+                            subtask.getTaskId(), Status.DONE, epic.getTaskId());
+                    taskManager.updateSubtask(done);
+                    taskManager.getEpic(epic.getTaskId());
+                }))
+                .collect(Collectors.toList());
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        assertEquals(Status.DONE, taskManager.getEpic(epic.getTaskId()).getStatus());
+        assertEquals(200, taskManager.getEpicSubtasks(epic).size());
+    }
+
+    @Test
+    @DisplayName("Чтения возвращают снимки, которые не меняются вместе с менеджером")
+    void testReadsReturnDetachedSnapshots() {
+        Task task = taskManager.addTask(new Task("Task", "Description"));
+        Epic epic = taskManager.addEpic(new Epic("Epic", "Description"));
+        Subtask subtask = taskManager.addSubtask(new Subtask("Subtask", "Description", epic.getTaskId()));
+
+        Epic snapshot = taskManager.getEpic(epic.getTaskId());
+        assertNotSame(epic, snapshot);
+        assertEquals(epic, snapshot);
+        assertTrue(snapshot.getSubtasks().isEmpty(), "Снимок эпика не копирует подзадачи");
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.setStatus(Status.DONE));
+        assertThrows(IllegalArgumentException.class, () -> taskManager.updateEpic(snapshot));
+        Subtask subtaskSnapshot = taskManager.getEpicSubtasks(epic).getFirst();
+
+        taskManager.updateSubtask(new Subtask("Subtask", "Description", subtask.getTaskId(), Status.DONE,
+                epic.getTaskId()));
+        assertEquals(Status.NEW, snapshot.getStatus(), "Снимок не должен видеть последующих изменений");
+        assertEquals(Status.NEW, subtaskSnapshot.getStatus());
+        assertEquals(Status.DONE, taskManager.getEpics().getFirst().getStatus());
+        assertEquals(1, taskManager.getEpicSubtasks(epic).size(), "Подзадачи эпика не должны отцепляться");
+
+        taskManager.getTasks().getFirst().setStatus(Status.DONE);
+        assertEquals(Status.NEW, taskManager.getTask(task.getTaskId()).getStatus(),
+                "Изменение копии не должно попадать в менеджер");
+    }
+}
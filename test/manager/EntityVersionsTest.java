@@ -0,0 +1,41 @@
+package manager;
+
+import org.junit.jupiter.api.Test;
+import task.Task;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EntityVersionsTest {
+
+    @Test
+    public void evictedTombstonesMoveHorizon() {
+        EntityVersions versions = new EntityVersions(2);
+        ChangeFeed feed = new ChangeFeed(16);
+        for (int id = 1; id <= 3; id++) {
+            Task task = new Task("Task " + id, "Desc", id, Status.NEW);
+            versions.record(feed.append(ChangeEvent.Type.ADDED, task), task);
+        }
+        for (int id = 1; id <= 3; id++) {
+            Task task = new Task("Task " + id, "Desc", id, Status.NEW);
+            versions.record(feed.append(ChangeEvent.Type.DELETED, task), task);
+        }
+
+        assertEquals(4, versions.getHorizon(), "Надгробие версии 4 вытеснено");
+        assertEquals(2, versions.since(4).size());
+        assertEquals(EntityVersions.NO_VERSION, versions.versionOf(3));
+    }
+
+    @Test
+    public void updateMovesEntityToNewVersion() {
+        EntityVersions versions = new EntityVersions(2);
+        ChangeFeed feed = new ChangeFeed(16);
+        Task task = new Task("Task", "Desc", 1, Status.NEW);
+        versions.record(feed.append(ChangeEvent.Type.ADDED, task), task);
+        versions.record(feed.append(ChangeEvent.Type.UPDATED, task), task);
+
+        assertEquals(2, versions.versionOf(1));
+        assertEquals(ChangeEvent.Type.ADDED, versions.since(0).getFirst().getType());
+        assertEquals(ChangeEvent.Type.UPDATED, versions.since(1).getFirst().getType());
+        assertTrue(versions.since(2).isEmpty());
+    }
+}
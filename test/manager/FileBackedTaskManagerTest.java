@@ -1,5 +1,6 @@
 package manager;
 
+import exception.ManagerSaveException;
 import task.Epic;
 import task.Subtask;
 import task.Task;
@@ -14,7 +15,11 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -166,7 +171,7 @@ public class FileBackedTaskManagerTest extends manager.TaskManagerTest<FileBacke
         String fileContent = Files.readString(tempFile.toPath());
         String[] lines = fileContent.split("\n");
 
-        assertEquals("id,type,name,status,description,epic,startTime,duration", lines[0].trim());
+        assertEquals("id,type,name,status,description,epic,startTime,duration;format=2", lines[0].trim());
 
         String[] taskData = lines[1].split(",");
         assertEquals(String.valueOf(task.getTaskId()), taskData[0]);
@@ -219,6 +224,192 @@ public class FileBackedTaskManagerTest extends manager.TaskManagerTest<FileBacke
                 "Новый ID должен быть больше предыдущих");
     }
 
+    @Test
+    @DisplayName("Сохранение и загрузка в бинарном формате")
+    public void testSaveAndLoadBinarySnapshot() throws IOException {
+        File binaryFile = File.createTempFile("test", ".bin", tempDir.toFile());
+        FileBackedTaskManager binaryManager = new FileBackedTaskManager(binaryFile, SnapshotFormat.BINARY);
+
+        LocalDateTime start = LocalDateTime.of(2024, 3, 1, 9, 30);
+        Task task = binaryManager.addTask(new Task("Задача, с запятой", "Описание", 0, Status.IN_PROGRESS, start, 45));
+        Epic epic = binaryManager.addEpic(new Epic("Эпик", "Описание эпика"));
+        Subtask subtask = binaryManager.addSubtask(new Subtask("Подзадача", "Описание", 0, Status.DONE,
+                epic.getTaskId(), start.plusHours(2), 30));
+
+        FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(binaryFile, SnapshotFormat.BINARY);
+
+        Task loadedTask = loaded.getTask(task.getTaskId());
+        assertEquals("Задача, с запятой", loadedTask.getTaskName());
+        assertEquals(Status.IN_PROGRESS, loadedTask.getStatus());
+        assertEquals(start, loadedTask.getStartTime());
+        assertEquals(45, loadedTask.getDuration());
+
+        Epic loadedEpic = loaded.getEpic(epic.getTaskId());
+        assertEquals(List.of(subtask), List.copyOf(loadedEpic.getSubtasks()), "Подзадача должна быть привязана к эпику");
+        assertEquals(Status.DONE, loadedEpic.getStatus());
+        assertEquals(start.plusHours(2), loadedEpic.calculateStartTime());
+        assertEquals(subtask.getTaskId() + 1, loaded.addTask(new Task("Новая", "Задача")).getTaskId());
+    }
+
+    @Test
+    @DisplayName("Бинарный снимок версии 1 не читается")
+    public void testLegacyBinarySnapshotFails() throws IOException {
+        File binaryFile = tempDir.resolve("legacy.bin").toFile();
+        Files.write(binaryFile.toPath(), new byte[]{'K', 'N', 'B', 'N', 1, 0});
+
+        ManagerSaveException e = assertThrows(ManagerSaveException.class,
+                () -> FileBackedTaskManager.loadFromFile(binaryFile, SnapshotFormat.BINARY));
+        assertTrue(e.getCause().getMessage().contains("версии 1"), "Ошибка должна называть версию снимка");
+    }
+
+    @Test
+    @DisplayName("Загрузка бинарного снимка из CSV-файла")
+    public void testLoadBinaryFromCsvFileFails() {
+        fileManager.addTask(new Task("Test Task", "Task description"));
+
+        assertThrows(ManagerSaveException.class,
+                () -> FileBackedTaskManager.loadFromFile(tempFile, SnapshotFormat.BINARY));
+    }
+
+    @Test
+    @DisplayName("Чтение CSV через отображение файла окнами")
+    public void testMappedCsvReadAcrossWindows() throws IOException {
+        Files.writeString(tempFile.toPath(), "id,type,name,status,description,epic,startTime,duration\n"
+                + "1,TASK,Задача,IN_PROGRESS,Описание,,2024-03-01T09:30:15.250,45\r\n"
+                + "\n"
+                + "2,EPIC,Эпик,NEW,Описание эпика,,null,0\n"
+                + "3,SUBTASK,Подзадача,DONE,Описание,2,2024-03-01T12:00,30\n"
+                + "4,TASK,Старый формат,NEW,Без времени");
+
+        for (int windowSize : new int[]{MappedCsvSnapshot.WINDOW_SIZE, 100}) {
+            Map<Integer, Task> loaded = MappedCsvSnapshot.read(tempFile, windowSize);
+
+            assertEquals(List.of(1, 2, 3, 4), List.copyOf(loaded.keySet()));
+            Task task = loaded.get(1);
+            assertEquals("Задача", task.getTaskName());
+            assertEquals(Status.IN_PROGRESS, task.getStatus());
+            assertEquals(LocalDateTime.of(2024, 3, 1, 9, 30, 15, 250_000_000), task.getStartTime());
+            assertEquals(45, task.getDuration());
+            assertInstanceOf(Epic.class, loaded.get(2));
+            assertEquals(2, ((Subtask) loaded.get(3)).getEpicId());
+            assertNull(loaded.get(4).getStartTime());
+        }
+    }
+
+    @Test
+    @DisplayName("Параллельная загрузка не трогает историю и связывает подзадачи с эпиками")
+    public void testParallelLoadLinksSubtasksWithoutHistory() throws IOException {
+        Files.writeString(tempFile.toPath(), "id,type,name,status,description,epic,startTime,duration\n"
+                + "3,SUBTASK,Подзадача,DONE,Описание,2,2024-03-01T12:00,30\n"
+                + "1,TASK,Задача,NEW,Описание,,null,0\n"
+                + "2,EPIC,Эпик,NEW,Описание эпика,,null,0\n"
+                + "4,SUBTASK,Подзадача 2,DONE,Описание,2,2024-03-01T13:00,15\n");
+
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            FileBackedTaskManager sequential = FileBackedTaskManager.loadFromFile(tempFile);
+            FileBackedTaskManager parallel = FileBackedTaskManager.loadFromFileParallel(
+                    tempFile, SnapshotFormat.CSV, pool);
+
+            for (FileBackedTaskManager loaded : List.of(sequential, parallel)) {
+                assertTrue(loaded.getHistory().isEmpty(), "Загрузка не должна попадать в историю");
+                Epic epic = loaded.getEpics().getFirst();
+                assertEquals(2, epic.getSubtasks().size(), "Обе подзадачи должны быть привязаны к эпику");
+                assertEquals(Status.DONE, epic.getStatus());
+                assertEquals(45, epic.calculateDuration());
+                assertEquals(5, loaded.generateId());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Подзадачи без эпика отбрасываются при загрузке и попадают в отчёт")
+    public void testLoadDropsOrphanSubtasks() throws IOException {
+        Files.writeString(tempFile.toPath(), "id,type,name,status,description,epic,startTime,duration\n"
+                + "1,EPIC,Эпик,NEW,Описание эпика,,null,0\n"
+                + "2,SUBTASK,Подзадача,DONE,Описание,1,null,0\n"
+                + "3,SUBTASK,Сирота,DONE,Описание,9,null,0\n");
+
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            for (FileBackedTaskManager loaded : List.of(FileBackedTaskManager.loadFromFile(tempFile),
+                    FileBackedTaskManager.loadFromFileParallel(tempFile, SnapshotFormat.CSV, pool))) {
+                assertEquals(List.of(2), loaded.getSubtasks().stream().map(Task::getTaskId).toList(),
+                        "Подзадача без эпика не должна загружаться");
+                assertEquals(List.of(3), loaded.getRecoveryReport().getDroppedSubtaskIds());
+                assertTrue(loaded.getRecoveryReport().isClean(), "Сам файл не повреждён");
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Восстановление CSV-снимка с повреждённым блоком")
+    public void testLoadRecoversRecordsAroundDamagedBlock() throws IOException {
+        for (int i = 0; i < 3 * MappedCsvSnapshot.BLOCK_RECORDS; i++) {
+            fileManager.addTask(new Task("Task " + i, "Description"));
+        }
+        byte[] content = Files.readAllBytes(tempFile.toPath());
+        content[content.length / 2] ^= 0x20;
+        Files.write(tempFile.toPath(), content);
+
+        FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(tempFile);
+
+        assertEquals(2 * MappedCsvSnapshot.BLOCK_RECORDS, loaded.getTasks().size(),
+                "Записи неповреждённых блоков должны восстановиться");
+        List<RecoveryReport.DamagedRange> damaged = loaded.getRecoveryReport().getDamagedRanges();
+        assertEquals(1, damaged.size());
+        assertTrue(damaged.getFirst().getStart() <= content.length / 2
+                && content.length / 2 < damaged.getFirst().getEnd(), "Отчёт должен указывать повреждённый участок");
+        assertThrows(IOException.class, () -> MappedCsvSnapshot.read(tempFile));
+    }
+
+    @Test
+    @DisplayName("Обрезанный CSV-снимок с контрольными суммами не читается как старый формат")
+    public void testTruncatedChecksummedCsvIsVerified() throws IOException {
+        for (int i = 0; i < 3; i++) {
+            fileManager.addTask(new Task("Task " + i, "Description"));
+        }
+        String content = Files.readString(tempFile.toPath());
+        Files.writeString(tempFile.toPath(), content.substring(0, content.indexOf('#')));
+
+        assertThrows(IOException.class, () -> MappedCsvSnapshot.read(tempFile),
+                "Без строки контрольной суммы блок не должен приниматься молча");
+        FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(tempFile);
+        assertFalse(loaded.getRecoveryReport().isClean(), "Обрезка должна попасть в отчёт");
+    }
+
+    @Test
+    @DisplayName("CSV-снимок с незнакомым заголовком не читается")
+    public void testUnknownCsvHeaderFails() throws IOException {
+        Files.writeString(tempFile.toPath(), "1,TASK,Задача,NEW,Описание,,null,0\n");
+
+        assertThrows(ManagerSaveException.class, () -> FileBackedTaskManager.loadFromFile(tempFile));
+    }
+
+    @Test
+    @DisplayName("Восстановление обрезанного бинарного снимка и атомарная запись")
+    public void testLoadRecoversTruncatedBinarySnapshot() throws IOException {
+        File binaryFile = tempDir.resolve("tasks.bin").toFile();
+        FileBackedTaskManager binaryManager = new FileBackedTaskManager(binaryFile, SnapshotFormat.BINARY);
+        for (int i = 0; i < 10; i++) {
+            binaryManager.addTask(new Task("Task " + i, "Description"));
+        }
+        assertFalse(tempDir.resolve("tasks.bin.tmp").toFile().exists(), "Временный файл не должен оставаться");
+
+        byte[] content = Files.readAllBytes(binaryFile.toPath());
+        Files.write(binaryFile.toPath(), Arrays.copyOf(content, content.length - 3));
+
+        FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(binaryFile, SnapshotFormat.BINARY);
+
+        assertEquals(9, loaded.getTasks().size());
+        assertFalse(loaded.getRecoveryReport().isClean());
+        assertEquals(content.length - 3, loaded.getRecoveryReport().getDamagedRanges().getFirst().getEnd());
+    }
+
     // Тесты на исключения
     @Test
     @DisplayName("Загрузка из несуществующего файла")
@@ -316,4 +507,46 @@ public class FileBackedTaskManagerTest extends manager.TaskManagerTest<FileBacke
         assertEquals(task.getTaskId(), history.getFirst().getTaskId());
     }
 
-}
\ No newline at end of file
+    @Test
+    @DisplayName("Загруженные задачи со временем участвуют в поиске окон и проверке пересечений")
+    public void testLoadedTimedTasksAreScheduled() {
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 9, 0);
+        LocalDateTime end = start.plusHours(2);
+        fileManager.addTask(new Task("Morning", "Desc", 0, Status.NEW, start, 60));
+        Epic epic = fileManager.addEpic(new Epic("Epic", "Desc"));
+        fileManager.addSubtask(new Subtask("Sub", "Desc", 0, Status.NEW, epic.getTaskId(),
+                start.plusMinutes(61), 30));
+
+        FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(tempFile);
+
+        assertEquals(2, loaded.getPrioritizedTasks().size());
+        assertEquals(2, loaded.getPrioritizedTasksBetween(start, end).size());
+        assertThrows(IllegalArgumentException.class, () -> loaded.addTask(
+                new Task("Overlap", "Desc", 0, Status.NEW, start.plusMinutes(30), 15)));
+
+        Task placed = loaded.addTask(new Task("Untimed", "Desc", 0, Status.NEW, null, 15), start, end);
+        assertEquals(start.plusMinutes(92), placed.getStartTime(),
+                "Задача должна встать после загруженных, а не в начало окна");
+    }
+
+    @Test
+    @DisplayName("Токен синхронизации, выданный до перезагрузки, требует полной синхронизации")
+    public void testSyncTokenFromPreviousRunIsRejected() {
+        Task first = fileManager.addTask(new Task("A", "Desc"));
+        String token = fileManager.getChangesSince((String) null).getToken();
+        for (int i = 0; i < 5; i++) {
+            first.setStatus(i % 2 == 0 ? Status.IN_PROGRESS : Status.NEW);
+            fileManager.updateTask(first);
+        }
+        fileManager.addTask(new Task("B", "Desc"));
+
+        FileBackedTaskManager loaded = FileBackedTaskManager.loadFromFile(tempFile);
+        loaded.addTask(new Task("C", "Desc"));
+        loaded.addTask(new Task("D", "Desc"));
+
+        assertNull(loaded.getChangesSince(token), "Версии прошлого запуска не должны давать частичную дельту");
+        ChangeSet full = loaded.getChangesSince((String) null);
+        assertEquals(4, full.getChanges().size());
+        assertTrue(loaded.getChangesSince(full.getToken()).getChanges().isEmpty());
+    }
+}
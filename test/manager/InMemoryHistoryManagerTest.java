@@ -90,6 +90,40 @@ public class InMemoryHistoryManagerTest {
         assertTrue(manager.getHistory().isEmpty(), "История должна быть пустой");
     }
 
+    @Test
+    public void boundedHistoryEvictsOldestTask() {
+        HistoryManager manager = new InMemoryHistoryManager(3);
+        for (int id = 1; id <= 5; id++) {
+            manager.add(new Task("Task" + id, "Desc" + id, id, Status.NEW));
+        }
+        assertHistoryOrder(manager, List.of(3, 4, 5));
+
+        manager.add(new Task("Task3", "Desc3", 3, Status.DONE));
+        manager.add(new Task("Task6", "Desc6", 6, Status.NEW));
+        assertHistoryOrder(manager, List.of(5, 3, 6));
+    }
+
+    @Test
+    public void snapshotIsReusedUntilHistoryChanges() {
+        HistoryManager manager = createHistoryWithTasks(1, 2);
+        List<Task> first = manager.getHistory();
+        assertSame(first, manager.getHistory(), "Без изменений снимок должен переиспользоваться");
+
+        manager.remove(1);
+        assertNotSame(first, manager.getHistory(), "После изменения снимок должен перестроиться");
+        assertEquals(2, first.size(), "Выданный ранее снимок не должен меняться");
+    }
+
+    @Test
+    public void historyTasksAreSharedAndImmutable() {
+        HistoryManager manager = createHistoryWithTasks(1);
+        Task fromHistory = manager.getHistory().getFirst();
+
+        assertSame(fromHistory, manager.getHistory().getFirst(), "Читатели должны получать один экземпляр");
+        assertEquals(new Task("Task1", "Desc1", 1, Status.NEW), fromHistory, "Копия равна исходной задаче");
+        assertThrows(UnsupportedOperationException.class, () -> fromHistory.setStatus(Status.DONE));
+    }
+
     private HistoryManager createHistoryWithTasks(int... ids) {
         HistoryManager manager = new InMemoryHistoryManager();
         for (int id : ids) {
@@ -53,6 +53,19 @@ public class InMemoryTaskManagerTest extends manager.TaskManagerTest<InMemoryTas
         assertEquals(subtask, manager.getSubtask(300));
     }
 
+    @Test
+    @DisplayName("Загруженные задачи входят в полный снимок с версией 0, но не в дельту")
+    void testLoadedTasksHaveBaselineVersion() {
+        InMemoryTaskManager manager = createTaskManager();
+        manager.loadTask(new Task("Loaded Task", "Description", 100, Status.NEW));
+
+        ChangeSet snapshot = manager.getChangesSince(-1);
+        assertEquals(0, snapshot.getVersion());
+        assertEquals(1, snapshot.getChanges().size());
+        assertEquals(0, snapshot.getChanges().getFirst().getVersion());
+        assertTrue(manager.getChangesSince(0).getChanges().isEmpty());
+    }
+
     @Test
     @DisplayName("Установка счетчика ID")
     void testSetIdCounter() {
@@ -176,8 +189,8 @@ public class InMemoryTaskManagerTest extends manager.TaskManagerTest<InMemoryTas
         assertEquals(2, manager.getPrioritizedTasks().size());
 
         Epic updatedEpic = new Epic("Updated Epic", "Description", epic.getTaskId(), Status.NEW);
-        updatedEpic.getSubtasks().add(subtask1);
-        updatedEpic.getSubtasks().add(subtask2);
+        updatedEpic.addSubtask(subtask1);
+        updatedEpic.addSubtask(subtask2);
 
         manager.updateEpic(updatedEpic);
 
@@ -215,6 +228,59 @@ public class InMemoryTaskManagerTest extends manager.TaskManagerTest<InMemoryTas
         assertTrue(manager.getPrioritizedTasks().isEmpty());
     }
 
+    @Test
+    @DisplayName("Освобождённый интервал можно занять после удаления задачи")
+    void testDeletedTaskFreesTimeSlot() {
+        InMemoryTaskManager manager = createTaskManager();
+
+        Task task1 = new Task("Task 1", "Description");
+        task1.setStartTime(LocalDateTime.of(2024, 1, 1, 10, 0));
+        task1.setDuration(60);
+        manager.addTask(task1);
+
+        Task task2 = new Task("Task 2", "Description");
+        task2.setStartTime(LocalDateTime.of(2024, 1, 1, 10, 30));
+        task2.setDuration(60);
+
+        assertThrows(IllegalArgumentException.class, () -> manager.addTask(task2));
+
+        manager.deleteTask(task1.getTaskId());
+        assertDoesNotThrow(() -> manager.addTask(task2));
+    }
+
+    @Test
+    @DisplayName("Агрегаты эпика обновляются при изменении подзадач")
+    void testEpicAggregatesFollowSubtaskChanges() {
+        InMemoryTaskManager manager = createTaskManager();
+        Epic epic = manager.addEpic(new Epic("Epic", "Description"));
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 10, 0);
+
+        Subtask first = manager.addSubtask(new Subtask("Subtask 1", "Description", 0, Status.NEW,
+                epic.getTaskId(), start, 30));
+        Subtask second = manager.addSubtask(new Subtask("Subtask 2", "Description", 0, Status.DONE,
+                epic.getTaskId(), start.plusHours(2), 60));
+
+        assertEquals(90, epic.calculateDuration());
+        assertEquals(start, epic.calculateStartTime());
+        assertEquals(start.plusHours(3), epic.calculateEndTime());
+        assertEquals(Status.IN_PROGRESS, epic.getStatus());
+
+        second.setStatus(Status.NEW);
+        second.setDuration(15);
+        manager.updateSubtask(second);
+        assertEquals(45, epic.calculateDuration());
+        assertEquals(start.plusHours(2).plusMinutes(15), epic.calculateEndTime());
+        assertEquals(Status.NEW, epic.getStatus());
+
+        manager.deleteSubtask(second.getTaskId());
+        assertEquals(30, epic.calculateDuration());
+        assertEquals(start.plusMinutes(30), epic.calculateEndTime());
+
+        manager.deleteSubtask(first.getTaskId());
+        assertNull(epic.calculateEndTime());
+        assertEquals(0, epic.calculateDuration());
+    }
+
     @Test
     @DisplayName("Задачи удаляются из истории при удалении")
     void testTaskRemovalFromHistory() {
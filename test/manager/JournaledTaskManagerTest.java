@@ -0,0 +1,174 @@
+package manager;
+
+import task.Epic;
+import task.Subtask;
+import task.Task;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JournaledTaskManagerTest {
+
+    @TempDir
+    Path tempDir;
+    private File snapshot;
+    private File journal;
+
+    @BeforeEach
+    public void setUp() {
+        snapshot = tempDir.resolve("tasks.csv").toFile();
+        journal = tempDir.resolve("tasks.journal").toFile();
+    }
+
+    @Test
+    @DisplayName("Мутации дописывают записи в журнал без перезаписи снимка")
+    public void testMutationsAppendToJournal() throws IOException {
+        JournaledTaskManager manager = new JournaledTaskManager(snapshot, journal);
+
+        Task task = manager.addTask(new Task("Task", "Description"));
+        manager.deleteTask(task.getTaskId());
+
+        assertEquals(2, manager.getJournalSize());
+        assertEquals(2, Files.readAllLines(journal.toPath()).size());
+        assertFalse(snapshot.exists(), "Снимок не должен создаваться до компактизации");
+    }
+
+    @Test
+    @DisplayName("Загрузка применяет журнал поверх снимка")
+    public void testLoadReplaysJournalOverSnapshot() {
+        JournaledTaskManager manager = new JournaledTaskManager(snapshot, journal);
+        Task task = manager.addTask(new Task("Task", "Description"));
+        Epic epic = manager.addEpic(new Epic("Epic", "Description"));
+        manager.compact();
+
+        Subtask subtask = manager.addSubtask(new Subtask("Subtask", "Description", epic.getTaskId()));
+        subtask.setStatus(Status.DONE);
+        manager.updateSubtask(subtask);
+        manager.deleteTask(task.getTaskId());
+
+        JournaledTaskManager loaded = JournaledTaskManager.loadFromFile(snapshot, journal);
+
+        assertTrue(loaded.getTasks().isEmpty());
+        assertEquals(1, loaded.getSubtasks().size());
+        assertEquals(Status.DONE, loaded.getSubtasks().getFirst().getStatus());
+        assertEquals(Status.DONE, loaded.getEpics().getFirst().getStatus());
+        assertEquals(1, loaded.getEpics().getFirst().getSubtasks().size());
+    }
+
+    @Test
+    @DisplayName("Обновление эпика журналируется вместе с потерянными подзадачами")
+    public void testEpicUpdateIsJournaled() throws IOException {
+        JournaledTaskManager manager = new JournaledTaskManager(snapshot, journal);
+        Epic epic = manager.addEpic(new Epic("Epic", "Description"));
+        Subtask kept = manager.addSubtask(new Subtask("Kept", "Description", epic.getTaskId()));
+        Subtask dropped = manager.addSubtask(new Subtask("Dropped", "Description", epic.getTaskId()));
+
+        Epic updated = new Epic("Renamed", "Description", epic.getTaskId(), Status.NEW);
+        updated.setSubtasks(List.of(kept));
+        manager.updateEpic(updated);
+
+        assertFalse(snapshot.exists(), "Обновление эпика не должно перезаписывать снимок");
+        List<String> records = Files.readAllLines(journal.toPath());
+        assertTrue(records.getLast().endsWith(",DEL," + dropped.getTaskId()),
+                "Потерянная подзадача должна удаляться записью журнала");
+
+        JournaledTaskManager loaded = JournaledTaskManager.loadFromFile(snapshot, journal);
+        assertEquals("Renamed", loaded.getEpics().getFirst().getTaskName());
+        assertEquals(List.of(kept.getTaskId()), loaded.getSubtasks().stream().map(Task::getTaskId).toList(),
+                "Потерянная эпиком подзадача не должна вернуться после загрузки");
+    }
+
+    @Test
+    @DisplayName("Запись без контрольной суммы завершает журнал")
+    public void testRecordWithoutChecksumEndsJournal() throws IOException {
+        JournaledTaskManager manager = new JournaledTaskManager(snapshot, journal);
+        manager.addTask(new Task("Task 1", "Description"));
+        Files.writeString(journal.toPath(), "PUT,2,TASK,Task 2,NEW,Description,,null,0\n", StandardOpenOption.APPEND);
+
+        JournaledTaskManager loaded = JournaledTaskManager.loadFromFile(snapshot, journal);
+
+        assertEquals(1, loaded.getTasks().size());
+        assertFalse(loaded.getJournalRecoveryReport().isClean());
+    }
+
+    @Test
+    @DisplayName("Компактизация по порогу очищает журнал")
+    public void testCompactionByThreshold() throws IOException {
+        JournaledTaskManager manager = new JournaledTaskManager(snapshot, journal, 3);
+
+        manager.addTask(new Task("Task 1", "Description"));
+        manager.addTask(new Task("Task 2", "Description"));
+        manager.addTask(new Task("Task 3", "Description"));
+
+        assertEquals(0, manager.getJournalSize());
+        assertTrue(Files.readString(journal.toPath()).isEmpty());
+
+        JournaledTaskManager loaded = JournaledTaskManager.loadFromFile(snapshot, journal, 3);
+        assertEquals(3, loaded.getTasks().size());
+    }
+
+    @Test
+    @DisplayName("Удаление эпика из журнала удаляет его подзадачи")
+    public void testDeletedEpicDropsSubtasksOnReplay() {
+        JournaledTaskManager manager = new JournaledTaskManager(snapshot, journal);
+        Epic epic = manager.addEpic(new Epic("Epic", "Description"));
+        manager.addSubtask(new Subtask("Subtask", "Description", epic.getTaskId()));
+        manager.deleteEpic(epic.getTaskId());
+
+        JournaledTaskManager loaded = JournaledTaskManager.loadFromFile(snapshot, journal);
+
+        assertTrue(loaded.getEpics().isEmpty());
+        assertTrue(loaded.getSubtasks().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Оборванная последняя запись журнала отбрасывается и попадает в отчёт")
+    public void testTornLastRecordIsDropped() throws IOException {
+        JournaledTaskManager manager = new JournaledTaskManager(snapshot, journal);
+        manager.addTask(new Task("Task 1", "Description"));
+        manager.addTask(new Task("Task 2", "Description"));
+        long intact = journal.length();
+        Files.writeString(journal.toPath(), "PUT,3,TA", StandardOpenOption.APPEND);
+
+        JournaledTaskManager loaded = JournaledTaskManager.loadFromFile(snapshot, journal);
+
+        assertEquals(2, loaded.getTasks().size());
+        assertEquals(2, loaded.getJournalSize());
+        assertFalse(loaded.getJournalRecoveryReport().isClean());
+        assertEquals(intact, loaded.getJournalRecoveryReport().getDamagedRanges().getFirst().getStart());
+        assertEquals(intact, journal.length(), "Оборванный хвост должен быть отрезан");
+
+        loaded.addTask(new Task("Task 3", "Description"));
+        assertEquals(3, JournaledTaskManager.loadFromFile(snapshot, journal).getTasks().size());
+    }
+
+    @Test
+    @DisplayName("Запись с неверной контрольной суммой завершает журнал")
+    public void testCorruptedRecordEndsJournal() throws IOException {
+        JournaledTaskManager manager = new JournaledTaskManager(snapshot, journal, 100, true);
+        manager.addTask(new Task("Task 1", "Description"));
+        manager.addTask(new Task("Task 2", "Description"));
+        manager.addTask(new Task("Task 3", "Description"));
+
+        List<String> records = Files.readAllLines(journal.toPath());
+        records.set(1, records.get(1).replace("Task 2", "Task X"));
+        Files.write(journal.toPath(), records);
+
+        JournaledTaskManager loaded = JournaledTaskManager.loadFromFile(snapshot, journal);
+
+        assertEquals(1, loaded.getTasks().size());
+        assertEquals("Task 1", loaded.getTasks().getFirst().getTaskName());
+        assertEquals(1, Files.readAllLines(journal.toPath()).size());
+    }
+}
@@ -0,0 +1,140 @@
+package manager;
+
+import task.Epic;
+import task.Subtask;
+import task.Task;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SegmentedTaskManagerTest {
+
+    @TempDir
+    Path tempDir;
+    private File directory;
+
+    @BeforeEach
+    public void setUp() {
+        directory = tempDir.resolve("segments").toFile();
+    }
+
+    @Test
+    @DisplayName("Изменение задачи перезаписывает только её сегмент")
+    public void testMutationRewritesOnlyItsSegment() {
+        SegmentedTaskManager manager = new SegmentedTaskManager(directory, SnapshotFormat.CSV, 10);
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 35; i++) {
+            tasks.add(manager.addTask(new Task("Task " + i, "Description")));
+        }
+        assertEquals(4, manager.getSegmentCount());
+
+        File first = new File(directory, "segment-0.dat");
+        File last = new File(directory, "segment-3.dat");
+        assertTrue(first.setLastModified(0));
+
+        Task task = tasks.getLast();
+        task.setStatus(Status.DONE);
+        manager.updateTask(task);
+
+        assertEquals(0, first.lastModified(), "Чужой сегмент не должен перезаписываться");
+        assertNotEquals(0, last.lastModified());
+    }
+
+    @Test
+    @DisplayName("Загрузка из сегментов восстанавливает задачи, эпики и подзадачи")
+    public void testLoadFromSegments() {
+        SegmentedTaskManager manager = new SegmentedTaskManager(directory, SnapshotFormat.BINARY, 2);
+        Task task = manager.addTask(new Task("Task", "Description"));
+        Epic epic = manager.addEpic(new Epic("Epic", "Description"));
+        Subtask subtask = manager.addSubtask(new Subtask("Subtask", "Description", epic.getTaskId()));
+        subtask.setStatus(Status.DONE);
+        manager.updateSubtask(subtask);
+        manager.deleteTask(task.getTaskId());
+
+        SegmentedTaskManager loaded = SegmentedTaskManager.loadFromDirectory(directory, SnapshotFormat.BINARY, 2);
+
+        assertTrue(loaded.getTasks().isEmpty());
+        assertEquals(1, loaded.getSubtasks().size());
+        assertEquals(Status.DONE, loaded.getEpics().getFirst().getStatus());
+        assertEquals(1, loaded.getEpics().getFirst().getSubtasks().size());
+    }
+
+    @Test
+    @DisplayName("Очистка удаляет опустевшие сегменты")
+    public void testClearRemovesEmptySegments() {
+        SegmentedTaskManager manager = new SegmentedTaskManager(directory, SnapshotFormat.CSV, 2);
+        for (int i = 0; i < 5; i++) {
+            manager.addTask(new Task("Task " + i, "Description"));
+        }
+
+        manager.clearTasks();
+
+        assertEquals(0, manager.getSegmentCount());
+        assertEquals(0, directory.listFiles().length);
+        assertTrue(SegmentedTaskManager.loadFromDirectory(directory, SnapshotFormat.CSV, 2).getTasks().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Смена размера сегмента при загрузке перекладывает записи")
+    public void testLoadWithDifferentSegmentSizeRelayouts() {
+        SegmentedTaskManager manager = new SegmentedTaskManager(directory, SnapshotFormat.CSV, 2);
+        for (int i = 0; i < 6; i++) {
+            manager.addTask(new Task("Task " + i, "Description"));
+        }
+
+        SegmentedTaskManager loaded = SegmentedTaskManager.loadFromDirectory(directory, SnapshotFormat.CSV, 4);
+
+        assertEquals(6, loaded.getTasks().size());
+        assertEquals(2, loaded.getSegmentCount());
+        assertEquals(6, SegmentedTaskManager.loadFromDirectory(directory, SnapshotFormat.CSV, 4).getTasks().size());
+    }
+
+    @Test
+    @DisplayName("Повреждения сегментов собираются в отчёт менеджера")
+    public void testLoadReportsDamagedSegment() throws IOException {
+        SegmentedTaskManager manager = new SegmentedTaskManager(directory, SnapshotFormat.CSV, 2);
+        for (int i = 0; i < 6; i++) {
+            manager.addTask(new Task("Task " + i, "Description"));
+        }
+        File damaged = new File(directory, "segment-1.dat");
+        byte[] content = Files.readAllBytes(damaged.toPath());
+        content[content.length / 2] ^= 0x20;
+        Files.write(damaged.toPath(), content);
+
+        SegmentedTaskManager loaded = SegmentedTaskManager.loadFromDirectory(directory, SnapshotFormat.CSV, 2);
+
+        assertEquals(4, loaded.getTasks().size(), "Целые сегменты должны загрузиться");
+        List<RecoveryReport.DamagedRange> ranges = loaded.getRecoveryReport().getDamagedRanges();
+        assertEquals(1, ranges.size(), "Повреждение сегмента должно попасть в отчёт менеджера");
+        assertEquals(damaged, ranges.getFirst().getFile());
+    }
+
+    @Test
+    @DisplayName("Удаление эпика перезаписывает сегменты всех его подзадач")
+    public void testDeleteEpicRewritesSubtaskSegments() {
+        SegmentedTaskManager manager = new SegmentedTaskManager(directory, SnapshotFormat.CSV, 2);
+        Epic epic = manager.addEpic(new Epic("Epic", "Description"));
+        for (int i = 0; i < 4; i++) {
+            manager.addSubtask(new Subtask("Subtask " + i, "Description", epic.getTaskId()));
+        }
+
+        manager.deleteEpic(epic.getTaskId());
+        assertEquals(0, manager.getSegmentCount(), "Сегменты подзадач должны быть перезаписаны при удалении");
+
+        SegmentedTaskManager loaded = SegmentedTaskManager.loadFromDirectory(directory, SnapshotFormat.CSV, 2);
+        assertTrue(loaded.getEpics().isEmpty());
+        assertTrue(loaded.getSubtasks().isEmpty(), "Подзадачи удалённого эпика не должны возвращаться");
+        assertEquals(0, loaded.getSegmentCount());
+    }
+}
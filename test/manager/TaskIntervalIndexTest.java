@@ -0,0 +1,83 @@
+package manager;
+
+import org.junit.jupiter.api.Test;
+import task.Task;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TaskIntervalIndexTest {
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 1, 1, 10, 0);
+
+    @Test
+    public void overlapDetectedForIntersectingInterval() {
+        TaskIntervalIndex index = new TaskIntervalIndex();
+        index.add(new Task("T1", "D", 1, Status.NEW, BASE, 60));
+
+        assertTrue(index.overlaps(BASE.plusMinutes(30), BASE.plusMinutes(90), 0));
+        assertTrue(index.overlaps(BASE.plusMinutes(60), BASE.plusMinutes(90), 0),
+                "Границы интервала включительные");
+        assertFalse(index.overlaps(BASE.plusMinutes(61), BASE.plusMinutes(90), 0));
+    }
+
+    @Test
+    public void excludedTaskIsIgnored() {
+        TaskIntervalIndex index = new TaskIntervalIndex();
+        index.add(new Task("T1", "D", 1, Status.NEW, BASE, 60));
+
+        assertFalse(index.overlaps(BASE, BASE.plusMinutes(30), 1));
+        assertTrue(index.overlaps(BASE, BASE.plusMinutes(30), 2));
+    }
+
+    @Test
+    public void removeUsesBoundsFromInsertion() {
+        TaskIntervalIndex index = new TaskIntervalIndex();
+        Task task = new Task("T1", "D", 1, Status.NEW, BASE, 60);
+        index.add(task);
+
+        task.setStartTime(BASE.plusDays(1));
+        index.remove(1);
+
+        assertEquals(0, index.size());
+        assertFalse(index.overlaps(BASE, BASE.plusMinutes(30), 0));
+    }
+
+    @Test
+    public void manyDisjointTasksStayConsistent() {
+        TaskIntervalIndex index = new TaskIntervalIndex();
+        for (int i = 1; i <= 1000; i++) {
+            index.add(new Task("T" + i, "D", i, Status.NEW, BASE.plusHours(i), 30));
+        }
+        for (int i = 1; i <= 1000; i += 2) {
+            index.remove(i);
+        }
+
+        assertEquals(500, index.size());
+        assertFalse(index.overlaps(BASE.plusHours(1), BASE.plusHours(1).plusMinutes(30), 0));
+        assertTrue(index.overlaps(BASE.plusHours(2), BASE.plusHours(2).plusMinutes(10), 0));
+    }
+
+    @Test
+    public void tasksWithoutStartTimeAreNotIndexed() {
+        TaskIntervalIndex index = new TaskIntervalIndex();
+        index.add(new Task("T1", "D", 1, Status.NEW));
+
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    public void overlappingReturnsTasksIntersectingWindowInStartOrder() {
+        TaskIntervalIndex index = new TaskIntervalIndex();
+        for (int i = 1; i <= 100; i++) {
+            index.add(new Task("T" + i, "D", i, Status.NEW, BASE.plusHours(i), 30));
+        }
+
+        List<Task> window = index.overlapping(BASE.plusHours(10).plusMinutes(30), BASE.plusHours(12));
+        assertEquals(List.of(10, 11, 12), window.stream().map(Task::getTaskId).toList(),
+                "Границы окна включительные");
+        assertTrue(index.overlapping(BASE.plusHours(10).plusMinutes(31), BASE.plusHours(10).plusMinutes(59))
+                .isEmpty());
+    }
+}
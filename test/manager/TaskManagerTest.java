@@ -4,6 +4,7 @@ import org.junit.jupiter.api.DisplayName;
 import task.Epic;
 import task.Subtask;
 import task.Task;
+import task.TypeTask;
 
 
 import org.junit.jupiter.api.BeforeEach;
@@ -11,6 +12,7 @@ import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
 
 import java.io.IOException;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -59,6 +61,22 @@ public abstract class TaskManagerTest<T extends TaskManager> {
         }
     }
 
+    @Test
+    void testEpicSubtasksChangeOnlyThroughEpic() {
+        Epic epic = new Epic("Epic", "Description", 1, Status.NEW);
+        Subtask first = new Subtask("First", "Desc", 2, Status.DONE, epic.getTaskId());
+        Subtask second = new Subtask("Second", "Desc", 3, Status.NEW, epic.getTaskId());
+        epic.addSubtask(first);
+        epic.addSubtask(second);
+
+        assertThrows(UnsupportedOperationException.class, () -> epic.getSubtasks().add(first));
+        assertThrows(UnsupportedOperationException.class, () -> epic.getSubtasks().clear());
+
+        epic.removeSubtask(new Subtask("Second", "Desc", 3, Status.NEW, epic.getTaskId()));
+        assertEquals(List.of(first), List.copyOf(epic.getSubtasks()), "Подзадача удаляется по id");
+        assertEquals(Status.DONE, epic.calculateStatus());
+    }
+
     @Test
     void testSubtaskCannotBeItsOwnEpic() {
         Subtask subtask = new Subtask("S", "D", 42, Status.NEW, 42);
@@ -413,4 +431,205 @@ public abstract class TaskManagerTest<T extends TaskManager> {
         assertEquals(Status.IN_PROGRESS, epic.getStatus(),
                 "Статус эпика со смешанными статусами подзадач должен быть IN_PROGRESS");
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Постраничная выборка задач по offset/limit и по курсору")
+    void testTaskPagination() {
+        List<Task> added = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            added.add(taskManager.addTask(new Task("Task " + i, "Desc")));
+        }
+
+        List<Task> page = taskManager.getTasks(1, 2);
+        assertEquals(List.of(added.get(1), added.get(2)), page);
+
+        List<Task> afterCursor = taskManager.getTasksAfter(added.get(2).getTaskId(), 10);
+        assertEquals(List.of(added.get(3), added.get(4)), afterCursor);
+
+        assertTrue(taskManager.getTasks(10, 5).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> taskManager.getTasks(-1, 5));
+    }
+
+    @Test
+    @DisplayName("Курсор по времени начала для приоритетного списка")
+    void testPrioritizedPaginationByStartTime() {
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 10, 0);
+        for (int i = 0; i < 4; i++) {
+            taskManager.addTask(new Task("Task " + i, "Desc", 0, Status.NEW, start.plusHours(i), 30));
+        }
+
+        List<Task> page = taskManager.getPrioritizedTasksAfter(start.plusHours(1), 1);
+        assertEquals(1, page.size());
+        assertEquals(start.plusHours(2), page.getFirst().getStartTime());
+
+        assertEquals(2, taskManager.getPrioritizedTasks(2, 10).size());
+    }
+
+    @Test
+    @DisplayName("Выборка по статусу и эпику следует за обновлениями и удалениями")
+    void testStatusAndEpicIndexes() {
+        Task task = taskManager.addTask(new Task("Task", "Desc", 0, Status.NEW));
+        Epic epic = taskManager.addEpic(new Epic("Epic", "Desc"));
+        Epic otherEpic = taskManager.addEpic(new Epic("Other", "Desc"));
+        Subtask first = taskManager.addSubtask(new Subtask("First", "Desc", 0, Status.NEW, epic.getTaskId()));
+        Subtask second = taskManager.addSubtask(new Subtask("Second", "Desc", 0, Status.DONE, epic.getTaskId()));
+        Subtask other = taskManager.addSubtask(new Subtask("Other", "Desc", 0, Status.DONE, otherEpic.getTaskId()));
+
+        assertEquals(List.of(task), taskManager.getTasksByStatus(Status.NEW));
+        assertEquals(List.of(second, other), taskManager.getSubtasksByStatus(Status.DONE));
+        assertEquals(List.of(first, second), taskManager.getSubtasksByEpic(epic.getTaskId()));
+        assertEquals(List.of(second), taskManager.getSubtasksByEpic(epic.getTaskId(), Status.DONE));
+        assertEquals(List.of(epic), taskManager.getEpicsByStatus(Status.IN_PROGRESS));
+        assertEquals(List.of(otherEpic), taskManager.getEpicsByStatus(Status.DONE));
+
+        task.setStatus(Status.DONE);
+        taskManager.updateTask(task);
+        first.setStatus(Status.DONE);
+        taskManager.updateSubtask(first);
+
+        assertTrue(taskManager.getTasksByStatus(Status.NEW).isEmpty());
+        assertEquals(List.of(task), taskManager.getTasksByStatus(Status.DONE));
+        assertEquals(List.of(epic, otherEpic), taskManager.getEpicsByStatus(Status.DONE));
+
+        taskManager.deleteSubtask(second.getTaskId());
+        taskManager.deleteEpic(otherEpic.getTaskId());
+
+        assertEquals(List.of(first), taskManager.getSubtasksByStatus(Status.DONE));
+        assertTrue(taskManager.getSubtasksByEpic(otherEpic.getTaskId()).isEmpty());
+        assertEquals(List.of(epic), taskManager.getEpicsByStatus(Status.DONE));
+
+        taskManager.clearSubtasks();
+        assertTrue(taskManager.getSubtasksByEpic(epic.getTaskId()).isEmpty());
+        assertEquals(List.of(epic), taskManager.getEpicsByStatus(Status.NEW));
+    }
+
+    @Test
+    @DisplayName("Окно времени возвращает задачи и подзадачи, пересекающие его")
+    void testPrioritizedTasksBetween() {
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 10, 0);
+        Task morning = taskManager.addTask(new Task("Morning", "Desc", 0, Status.NEW, start, 60));
+        Epic epic = taskManager.addEpic(new Epic("Epic", "Desc"));
+        Subtask noon = taskManager.addSubtask(new Subtask("Noon", "Desc", 0, Status.NEW,
+                epic.getTaskId(), start.plusHours(2), 60));
+        taskManager.addTask(new Task("Evening", "Desc", 0, Status.NEW, start.plusHours(8), 60));
+        taskManager.addTask(new Task("Untimed", "Desc"));
+
+        assertEquals(List.of(morning, noon),
+                taskManager.getPrioritizedTasksBetween(start.plusMinutes(30), start.plusHours(2)));
+        assertTrue(taskManager.getPrioritizedTasksBetween(start.plusHours(4), start.plusHours(5)).isEmpty());
+        assertThrows(IllegalArgumentException.class,
+                () -> taskManager.getPrioritizedTasksBetween(start.plusHours(1), start));
+    }
+
+    @Test
+    @DisplayName("Поиск свободных окон и автоматическое размещение задачи без времени")
+    void testFreeSlotsAndAutoPlacement() {
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 9, 0);
+        LocalDateTime end = start.plusHours(8);
+        taskManager.addTask(new Task("Standup", "Desc", 0, Status.NEW, start.plusMinutes(30), 30));
+        taskManager.addTask(new Task("Review", "Desc", 0, Status.NEW, start.plusHours(2), 60));
+
+        List<TimeSlot> slots = taskManager.findFreeSlots(45, start, end, 3);
+        assertEquals(List.of(
+                new TimeSlot(start.plusMinutes(61), start.plusMinutes(119)),
+                new TimeSlot(start.plusMinutes(181), end)), slots,
+                "Окно до первой задачи слишком короткое, остальные отделены минутным зазором");
+        assertEquals(1, taskManager.findFreeSlots(0, start, end, 1).size());
+        assertTrue(taskManager.findFreeSlots(24 * 60, start, end, 1).isEmpty());
+
+        Task placed = taskManager.addTask(new Task("Untimed", "Desc", 0, Status.NEW, null, 45), start, end);
+        assertEquals(start.plusMinutes(61), placed.getStartTime());
+        assertEquals(start.plusMinutes(181), taskManager.findFreeSlots(45, start, end, 1).getFirst().getStart());
+
+        Task timed = new Task("Timed", "Desc", 0, Status.NEW, start.plusHours(5), 30);
+        assertEquals(start.plusHours(5), taskManager.addTask(timed, start, end).getStartTime());
+
+        Epic epic = taskManager.addEpic(new Epic("Epic", "Desc"));
+        Subtask subtask = taskManager.addSubtask(
+                new Subtask("Sub", "Desc", 0, Status.NEW, epic.getTaskId(), null, 30), start, end);
+        assertEquals(start.plusMinutes(181), subtask.getStartTime());
+
+        assertThrows(IllegalArgumentException.class, () -> taskManager.addTask(
+                new Task("Too long", "Desc", 0, Status.NEW, null, 24 * 60), start, end));
+    }
+
+    @Test
+    @DisplayName("Мутации публикуют события в ленту изменений с растущими версиями")
+    void testChangeFeedRecordsMutations() {
+        ChangeFeed feed = taskManager.getChangeFeed();
+        long start = feed.getVersion();
+
+        Task task = taskManager.addTask(new Task("Task", "Desc"));
+        Epic epic = taskManager.addEpic(new Epic("Epic", "Desc"));
+        Subtask subtask = taskManager.addSubtask(new Subtask("Sub", "Desc", epic.getTaskId()));
+        task.setStatus(Status.DONE);
+        taskManager.updateTask(task);
+        taskManager.deleteSubtask(subtask.getTaskId());
+        taskManager.getTask(task.getTaskId());
+
+        List<ChangeEvent> events = feed.since(start);
+        assertEquals(List.of(
+                        ChangeEvent.Type.ADDED, ChangeEvent.Type.ADDED, ChangeEvent.Type.ADDED,
+                        ChangeEvent.Type.UPDATED, ChangeEvent.Type.UPDATED,
+                        ChangeEvent.Type.DELETED, ChangeEvent.Type.UPDATED),
+                events.stream().map(ChangeEvent::getType).toList(), "Чтение не должно попадать в ленту");
+        assertEquals(List.of(task.getTaskId(), epic.getTaskId(), subtask.getTaskId(), epic.getTaskId(),
+                        task.getTaskId(), subtask.getTaskId(), epic.getTaskId()),
+                events.stream().map(ChangeEvent::getId).toList());
+        assertEquals(TypeTask.SUBTASK, events.get(2).getEntity());
+        assertEquals(epic.getTaskId(), events.get(2).getEpicId());
+        assertEquals(Status.DONE, events.get(4).getSnapshot().getStatus());
+        assertEquals(start + events.size(), feed.getVersion());
+    }
+
+    @Test
+    @DisplayName("Дельта после версии содержит только созданное, изменённое и удалённое")
+    void testChangesSinceVersion() {
+        Task kept = taskManager.addTask(new Task("Kept", "Desc"));
+        Task removed = taskManager.addTask(new Task("Removed", "Desc"));
+        long version = taskManager.getChangesSince(-1).getVersion();
+
+        kept.setStatus(Status.IN_PROGRESS);
+        taskManager.updateTask(kept);
+        taskManager.deleteTask(removed.getTaskId());
+        Task added = taskManager.addTask(new Task("Added", "Desc"));
+        Task shortLived = taskManager.addTask(new Task("Transient", "Desc"));
+        taskManager.deleteTask(shortLived.getTaskId());
+
+        ChangeSet changes = taskManager.getChangesSince(version);
+        assertEquals(taskManager.getChangeFeed().getVersion(), changes.getVersion());
+        assertEquals(List.of(kept.getTaskId(), removed.getTaskId(), added.getTaskId()),
+                changes.getChanges().stream().map(ChangeEvent::getId).toList(),
+                "Созданная и удалённая после версии задача не нужна клиенту");
+        assertEquals(List.of(ChangeEvent.Type.UPDATED, ChangeEvent.Type.DELETED, ChangeEvent.Type.ADDED),
+                changes.getChanges().stream().map(ChangeEvent::getType).toList());
+        assertEquals(Status.IN_PROGRESS, changes.getChanges().getFirst().getSnapshot().getStatus());
+
+        assertTrue(taskManager.getChangesSince(changes.getVersion()).getChanges().isEmpty());
+        assertEquals(2, taskManager.getChangesSince(-1).getChanges().size(), "Полный снимок — только живые");
+        assertNull(taskManager.getChangesSince(changes.getVersion() + 1), "Версия из будущего");
+        assertThrows(IllegalArgumentException.class, () -> taskManager.getChangesSince(-2));
+    }
+
+    @Test
+    @DisplayName("Версии сущности и коллекции растут только при изменениях")
+    void testEntityAndCollectionVersions() {
+        Task task = taskManager.addTask(new Task("Task", "Desc"));
+        long taskVersion = taskManager.getEntityVersion(task.getTaskId());
+        long tasksVersion = taskManager.getCollectionVersion(TypeTask.TASK);
+        assertEquals(taskVersion, tasksVersion);
+        assertEquals(0, taskManager.getCollectionVersion(TypeTask.EPIC));
+
+        Epic epic = taskManager.addEpic(new Epic("Epic", "Desc"));
+        taskManager.addSubtask(new Subtask("Sub", "Desc", epic.getTaskId()));
+        taskManager.getTask(task.getTaskId());
+        assertEquals(taskVersion, taskManager.getEntityVersion(task.getTaskId()), "Чтение не меняет версию");
+        assertEquals(tasksVersion, taskManager.getCollectionVersion(TypeTask.TASK));
+        assertTrue(taskManager.getEntityVersion(epic.getTaskId()) > taskVersion,
+                "Подзадача меняет статус и версию эпика");
+
+        taskManager.deleteTask(task.getTaskId());
+        assertEquals(-1, taskManager.getEntityVersion(task.getTaskId()));
+        assertTrue(taskManager.getCollectionVersion(TypeTask.TASK) > tasksVersion);
+    }
+}
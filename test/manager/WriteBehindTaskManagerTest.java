@@ -0,0 +1,134 @@
+package manager;
+
+import task.Task;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WriteBehindTaskManagerTest extends TaskManagerTest<WriteBehindTaskManager> {
+
+    @TempDir
+    Path tempDir;
+
+    @Override
+    protected WriteBehindTaskManager createTaskManager() {
+        return new WriteBehindTaskManager(tempDir.resolve("contract.csv").toFile(), 0, 100, 1000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        taskManager.close();
+    }
+
+    @Test
+    @DisplayName("Изменения копятся до flush()")
+    public void testChangesArePendingUntilFlush() {
+        File file = tempDir.resolve("tasks.csv").toFile();
+        WriteBehindTaskManager manager = new WriteBehindTaskManager(file, 0, 100, 1000);
+
+        manager.addTask(new Task("Task 1", "Description"));
+        manager.addTask(new Task("Task 2", "Description"));
+
+        assertEquals(2, manager.getPending());
+        assertFalse(file.exists(), "Файл не должен записываться до сброса");
+
+        manager.flush();
+
+        assertEquals(0, manager.getPending());
+        assertEquals(2, FileBackedTaskManager.loadFromFile(file).getTasks().size());
+        manager.close();
+    }
+
+    @Test
+    @DisplayName("Переполнение очереди сбрасывает изменения в потоке мутации")
+    public void testBackpressureFlushesInline() {
+        File file = tempDir.resolve("tasks.csv").toFile();
+        WriteBehindTaskManager manager = new WriteBehindTaskManager(file, 0, 100, 3);
+
+        manager.addTask(new Task("Task 1", "Description"));
+        manager.addTask(new Task("Task 2", "Description"));
+        manager.addTask(new Task("Task 3", "Description"));
+
+        assertEquals(0, manager.getPending());
+        assertEquals(3, FileBackedTaskManager.loadFromFile(file).getTasks().size());
+        manager.close();
+    }
+
+    @Test
+    @DisplayName("Синхронный режим пишет файл после каждой мутации")
+    public void testSynchronousMode() {
+        File file = tempDir.resolve("tasks.csv").toFile();
+        WriteBehindTaskManager manager = WriteBehindTaskManager.synchronous(file);
+
+        manager.addTask(new Task("Task", "Description"));
+
+        assertEquals(0, manager.getPending());
+        assertEquals(1, FileBackedTaskManager.loadFromFile(file).getTasks().size());
+    }
+
+    @Test
+    @DisplayName("close() сохраняет несброшенные изменения")
+    public void testCloseFlushesPendingChanges() {
+        File file = tempDir.resolve("tasks.csv").toFile();
+        WriteBehindTaskManager manager = new WriteBehindTaskManager(file, 0, 100, 1000);
+
+        manager.addTask(new Task("Task", "Description"));
+        manager.close();
+
+        assertEquals(1, FileBackedTaskManager.loadFromFile(file).getTasks().size());
+    }
+
+    @Test
+    @DisplayName("loadFromFile восстанавливает сохранённые задачи и счётчик ID")
+    public void testLoadFromFileRestoresState() {
+        File file = tempDir.resolve("tasks.csv").toFile();
+        WriteBehindTaskManager manager = new WriteBehindTaskManager(file, 0, 100, 1000);
+        Task task = manager.addTask(new Task("Task", "Description"));
+        manager.close();
+
+        WriteBehindTaskManager loaded = WriteBehindTaskManager.loadFromFile(file);
+        Task added = loaded.addTask(new Task("Task 2", "Description"));
+        loaded.close();
+
+        assertEquals(2, loaded.getTasks().size());
+        assertNotEquals(task.getTaskId(), added.getTaskId());
+        assertEquals(2, FileBackedTaskManager.loadFromFile(file).getTasks().size());
+    }
+
+    @Test
+    @DisplayName("Параллельные мутации, чтения и сбросы не теряют изменений")
+    public void testConcurrentMutationsAndFlushes() throws Exception {
+        File file = tempDir.resolve("tasks.csv").toFile();
+        WriteBehindTaskManager manager = new WriteBehindTaskManager(file, 1, 10, 50).start();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            int number = i;
+            futures.add(executor.submit(() -> {
+                manager.addTask(new Task("Task " + number, "Description"));
+                manager.getTasks();
+                manager.flush();
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        manager.close();
+
+        assertEquals(500, manager.getTasks().size());
+        assertEquals(500, FileBackedTaskManager.loadFromFile(file).getTasks().size());
+    }
+}